@@ -1,5 +1,6 @@
 package dev.seyon.leveling;
 
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
@@ -9,8 +10,12 @@ import dev.seyon.leveling.api.LevelSystemAPIImpl;
 import dev.seyon.leveling.command.LevelSystemCommand;
 import dev.seyon.leveling.event.BreakBlockExpSystem;
 import dev.seyon.leveling.event.CraftRecipeExpSystem;
+import dev.seyon.leveling.event.DamageLedgerComponent;
+import dev.seyon.leveling.event.DamageLedgerSystem;
 import dev.seyon.leveling.event.DiscoverZoneExpSystem;
 import dev.seyon.leveling.event.EntityKillExpSystem;
+import dev.seyon.leveling.event.ExpGrantFlushSystem;
+import dev.seyon.leveling.event.ExplorationWalkComponent;
 import dev.seyon.leveling.event.ExplorationWalkExpSystem;
 import dev.seyon.leveling.event.LevelSystemEventHandler;
 import dev.seyon.leveling.event.PlaceBlockExpSystem;
@@ -36,10 +41,10 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
     private ModifierService modifierService;
     private QuestService questService;
     private ActionRegistryService actionRegistryService;
-
-    /** Per-player state for explore_steps: accumulated walk distance. Cleaned on disconnect. */
-    private final java.util.Map<java.util.UUID, ExplorationWalkExpSystem.ExplorationWalkData> explorationWalkTracker =
-        new java.util.concurrent.ConcurrentHashMap<>();
+    private ExpGrantAccumulator expGrantAccumulator;
+    private ExpNotificationService expNotificationService;
+    private ExplorationWalkExpSystem explorationWalkExpSystem;
+    private PlacedBlockIndex placedBlockIndex;
     
     // API
     private LevelSystemAPI api;
@@ -69,16 +74,31 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
         this.categoryService = new CategoryService(this.getLogger());
         this.dataService = new LevelSystemDataService(this.getLogger());
         this.actionRegistryService = new ActionRegistryService(this.getLogger());
-        ExpNotificationService expNotificationService = new ExpNotificationService();
-        this.experienceService = new ExperienceService(this.getLogger(), this.categoryService, this.dataService, this.configService, expNotificationService);
+        this.expNotificationService = new ExpNotificationService();
+        this.experienceService = new ExperienceService(this.getLogger(), this.categoryService, this.dataService, this.configService, this.expNotificationService);
+        this.expGrantAccumulator = new ExpGrantAccumulator(this.getLogger(), this.experienceService);
+        this.placedBlockIndex = new PlacedBlockIndex();
         this.skillService = new SkillService(this.getLogger(), this.categoryService, this.dataService);
         this.modifierService = new ModifierService(this.getLogger(), this.categoryService, this.dataService, this.skillService);
+        this.dataService.addListener(this.modifierService);
         this.questService = new QuestService(this.getLogger(), this.categoryService, this.dataService);
 
         // Load configuration
         this.configService.load();
         this.categoryService.loadCategories(this.configService);
         this.actionRegistryService.loadActions(this.configService);
+        this.expNotificationService.loadCategories(this.categoryService.getAllCategories());
+        this.expNotificationService.start(
+            this.configService.getMainConfig().getGlobalSettings().getExpNotificationIntervalMs(),
+            this.configService.getMainConfig().getGlobalSettings().getExpNotificationMaxPerSecond()
+        );
+        this.dataService.start(this.configService.getMainConfig().getPersistence());
+        this.expGrantAccumulator.setWindowMs(this.configService.getMainConfig().getGlobalSettings().getExpAggregationWindowMs());
+        this.expGrantAccumulator.start();
+        this.placedBlockIndex.configure(
+            this.configService.getMainConfig().getGlobalSettings().getPlacedBlockMemoryMs(),
+            this.configService.getMainConfig().getGlobalSettings().getPlacedBlockExpFactor()
+        );
 
         // Initialize API
         this.api = new LevelSystemAPIImpl(
@@ -93,6 +113,10 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
         this.getCommandRegistry().registerCommand(new LevelSystemCommand());
 
         // Register event handlers
+        this.getEventRegistry().registerGlobal(
+            PlayerConnectEvent.class,
+            event -> LevelSystemEventHandler.onPlayerConnect(event, this)
+        );
         this.getEventRegistry().registerGlobal(
             PlayerReadyEvent.class, 
             event -> LevelSystemEventHandler.onPlayerReady(event, this)
@@ -102,15 +126,24 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
             event -> LevelSystemEventHandler.onPlayerDisconnect(event, this)
         );
 
+        // Apply queued EXP grants once per aggregation window (event systems queue, this applies)
+        this.getEntityStoreRegistry().registerSystem(new ExpGrantFlushSystem(this));
         // Register EXP systems for categories
         // BreakBlock: mining/woodcutting (action IDs: break_<blockType.getId()>)
         this.getEntityStoreRegistry().registerSystem(new BreakBlockExpSystem(this));
         // DiscoverZone: exploration (action: discover_zone)
         this.getEntityStoreRegistry().registerSystem(new DiscoverZoneExpSystem(this));
-        // EntityKill: combat_melee (kill_enemy_melee), combat_ranged (kill_enemy_ranged)
-        this.getEntityStoreRegistry().registerSystem(new EntityKillExpSystem(this));
-        // Exploration: every 100 blocks walked (action: explore_steps)
-        this.getEntityStoreRegistry().registerSystem(new ExplorationWalkExpSystem(this));
+        // EntityKill: combat_melee (kill_melee_<role> / kill_enemy_melee), combat_ranged (kill_ranged_<role> / kill_enemy_ranged),
+        // shared by the players in the victim's damage ledger
+        var damageLedgerType = this.getEntityStoreRegistry().registerComponent(DamageLedgerComponent.class, DamageLedgerComponent::new);
+        this.getEntityStoreRegistry().registerSystem(new DamageLedgerSystem(damageLedgerType));
+        this.getEntityStoreRegistry().registerSystem(new EntityKillExpSystem(this, damageLedgerType));
+        // Exploration: every 100 blocks walked (explore_steps) and first entry of a chunk (discover_new_chunk).
+        // Walk state is a component on the player entity, added by the system on the player's first tick
+        this.explorationWalkExpSystem = new ExplorationWalkExpSystem(this,
+            this.getEntityStoreRegistry().registerComponent(ExplorationWalkComponent.class, ExplorationWalkComponent::new));
+        this.explorationWalkExpSystem.setSampleTicks(this.configService.getMainConfig().getGlobalSettings().getExplorationSampleTicks());
+        this.getEntityStoreRegistry().registerSystem(this.explorationWalkExpSystem);
         // CraftRecipeEvent.Post: crafting (craft_item or craft_<recipeId>, exp * quantity)
         this.getEntityStoreRegistry().registerSystem(new CraftRecipeExpSystem(this));
         // PlaceBlockEvent: farming etc. (place_<blockKey> or place_<itemId>)
@@ -140,8 +173,10 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
     @Override
     protected void shutdown() {
         super.shutdown();
-        // Save all player data on shutdown
-        this.dataService.saveAll();
+        // Apply queued EXP, then flush pending writes and save all player data on shutdown
+        this.expGrantAccumulator.flushAll();
+        this.dataService.shutdown();
+        this.expNotificationService.shutdown();
         this.getLogger().at(java.util.logging.Level.INFO).log("Seyon Level System Plugin shutdown successfully!");
     }
 
@@ -178,11 +213,20 @@ public class SeyonLevelSystemPlugin extends JavaPlugin {
         return actionRegistryService;
     }
 
-    /**
-     * Walk tracker for explore_steps EXP. Entries are removed on player disconnect.
-     */
-    public java.util.Map<java.util.UUID, ExplorationWalkExpSystem.ExplorationWalkData> getExplorationWalkTracker() {
-        return explorationWalkTracker;
+    public ExpGrantAccumulator getExpGrantAccumulator() {
+        return expGrantAccumulator;
+    }
+
+    public ExpNotificationService getExpNotificationService() {
+        return expNotificationService;
+    }
+
+    public PlacedBlockIndex getPlacedBlockIndex() {
+        return placedBlockIndex;
+    }
+
+    public ExplorationWalkExpSystem getExplorationWalkExpSystem() {
+        return explorationWalkExpSystem;
     }
 
     public LevelSystemAPI getAPI() {
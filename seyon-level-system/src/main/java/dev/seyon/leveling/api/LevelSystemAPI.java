@@ -1,7 +1,9 @@
 package dev.seyon.leveling.api;
 
 import dev.seyon.leveling.config.LevelSystemCategory;
+import dev.seyon.leveling.model.LeaderboardEntry;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -49,7 +51,8 @@ public interface LevelSystemAPI {
     boolean hasSkill(UUID playerId, String categoryId, String skillId);
     
     /**
-     * Get the value of a specific modifier for a player
+     * Get the value of a specific modifier for a player. Served from a per-player cache that is
+     * refreshed after level-ups, skill changes and reloads.
      * @param playerId Player UUID
      * @param modifierId Modifier ID (e.g., "max_health", "damage")
      * @return Modifier value
@@ -62,4 +65,12 @@ public interface LevelSystemAPI {
      * @return true if category exists
      */
     boolean hasCategory(String categoryId);
+    
+    /**
+     * Get the top players of a category, ordered by level then EXP
+     * @param categoryId Category ID
+     * @param limit Maximum number of entries
+     * @return Leaderboard entries, highest first
+     */
+    List<LeaderboardEntry> getTopPlayers(String categoryId, int limit);
 }
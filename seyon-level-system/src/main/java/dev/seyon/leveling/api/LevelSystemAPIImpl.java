@@ -1,8 +1,10 @@
 package dev.seyon.leveling.api;
 
 import dev.seyon.leveling.config.LevelSystemCategory;
+import dev.seyon.leveling.model.LeaderboardEntry;
 import dev.seyon.leveling.service.*;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -62,4 +64,9 @@ public class LevelSystemAPIImpl implements LevelSystemAPI {
     public boolean hasCategory(String categoryId) {
         return categoryService.hasCategory(categoryId);
     }
+
+    @Override
+    public List<LeaderboardEntry> getTopPlayers(String categoryId, int limit) {
+        return dataService.getTopPlayers(categoryId, limit);
+    }
 }
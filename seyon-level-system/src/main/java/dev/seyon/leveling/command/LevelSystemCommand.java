@@ -21,18 +21,20 @@ import dev.seyon.leveling.model.PlayerLevelSystemData;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
 import java.awt.Color;
+import java.io.File;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import static com.hypixel.hytale.server.core.command.commands.player.inventory.InventorySeeCommand.MESSAGE_COMMANDS_ERRORS_PLAYER_NOT_IN_WORLD;
 
 /**
  * Main command for Level System
- * Commands: /seyon-level, /seyon-level stats, /seyon-level addexp, /seyon-level setlevel, /seyon-level reload
+ * Commands: /seyon-level, /seyon-level stats, /seyon-level addexp, /seyon-level setlevel, /seyon-level export, /seyon-level import, /seyon-level reload
  */
 public class LevelSystemCommand extends AbstractAsyncCommand {
 
     // Register command arguments
-    RequiredArg<String> subcommandArg = this.withRequiredArg("subcommand", "gui, stats, addexp, setlevel, resetskills, or reload", ArgTypes.STRING);
+    RequiredArg<String> subcommandArg = this.withRequiredArg("subcommand", "gui, stats, addexp, setlevel, resetskills, export, import, or reload", ArgTypes.STRING);
     OptionalArg<String> playerArg = this.withOptionalArg("player", "Player name", ArgTypes.STRING);
     OptionalArg<String> categoryArg = this.withOptionalArg("category", "Category ID", ArgTypes.STRING);
     OptionalArg<Integer> amountArg = this.withOptionalArg("amount", "Amount", ArgTypes.INTEGER);
@@ -59,6 +61,8 @@ public class LevelSystemCommand extends AbstractAsyncCommand {
             case "addexp" -> handleAddExp(commandContext, sender);
             case "setlevel" -> handleSetLevel(commandContext, sender);
             case "resetskills" -> handleResetSkills(commandContext, sender);
+            case "export" -> handleExport(commandContext, sender);
+            case "import" -> handleImport(commandContext, sender);
             case "reload" -> handleReload(commandContext, sender);
             case "gui" -> handleGui(commandContext, sender);
             default -> handleHelp(commandContext, sender);
@@ -216,6 +220,60 @@ public class LevelSystemCommand extends AbstractAsyncCommand {
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Export a player's data as JSON (player is given by UUID)
+     */
+    private CompletableFuture<Void> handleExport(CommandContext context, CommandSender sender) {
+        UUID playerId = parsePlayerId(context, "export");
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        try {
+            File exportFile = SeyonLevelSystemPlugin.getInstance().getDataService().exportPlayerData(playerId);
+            context.sendMessage(Message.raw("Exported player data to " + exportFile.getPath()).color(Color.GREEN));
+        } catch (Exception e) {
+            context.sendMessage(Message.raw("Failed to export player data! Check console for errors.").color(Color.RED));
+            SeyonLevelSystemPlugin.getInstance().getLogger()
+                .at(java.util.logging.Level.SEVERE)
+                .withCause(e)
+                .log("Failed to export player data");
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Import a player's data from a previous JSON export (player is given by UUID)
+     */
+    private CompletableFuture<Void> handleImport(CommandContext context, CommandSender sender) {
+        UUID playerId = parsePlayerId(context, "import");
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        if (SeyonLevelSystemPlugin.getInstance().getDataService().importPlayerData(playerId)) {
+            context.sendMessage(Message.raw("Imported player data for " + playerId).color(Color.GREEN));
+        } else {
+            context.sendMessage(Message.raw("No readable export found for " + playerId + " (SeyonLevelSystem/export)").color(Color.RED));
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private UUID parsePlayerId(CommandContext context, String subcommand) {
+        String playerValue = playerArg.get(context);
+        if (playerValue != null && !playerValue.isEmpty()) {
+            try {
+                return UUID.fromString(playerValue);
+            } catch (IllegalArgumentException ignored) {
+                // Fall through to usage
+            }
+        }
+        context.sendMessage(Message.raw("Usage: /seyon-level " + subcommand + " --player=<uuid>").color(Color.RED));
+        return null;
+    }
+
     /**
      * Reload configuration
      */
@@ -230,10 +288,28 @@ public class LevelSystemCommand extends AbstractAsyncCommand {
             SeyonLevelSystemPlugin.getInstance().getCategoryService().loadCategories(
                 SeyonLevelSystemPlugin.getInstance().getConfigService()
             );
+            SeyonLevelSystemPlugin.getInstance().getModifierService().invalidateAll();
             SeyonLevelSystemPlugin.getInstance().getActionRegistryService().loadActions(
                 SeyonLevelSystemPlugin.getInstance().getConfigService()
             );
-            
+            SeyonLevelSystemPlugin.getInstance().getExpGrantAccumulator().setWindowMs(
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getExpAggregationWindowMs()
+            );
+            SeyonLevelSystemPlugin.getInstance().getPlacedBlockIndex().configure(
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getPlacedBlockMemoryMs(),
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getPlacedBlockExpFactor()
+            );
+            SeyonLevelSystemPlugin.getInstance().getExplorationWalkExpSystem().setSampleTicks(
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getExplorationSampleTicks()
+            );
+            SeyonLevelSystemPlugin.getInstance().getExpNotificationService().loadCategories(
+                SeyonLevelSystemPlugin.getInstance().getCategoryService().getAllCategories()
+            );
+            SeyonLevelSystemPlugin.getInstance().getExpNotificationService().start(
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getExpNotificationIntervalMs(),
+                SeyonLevelSystemPlugin.getInstance().getConfigService().getMainConfig().getGlobalSettings().getExpNotificationMaxPerSecond()
+            );
+
             context.sendMessage(Message.join(
                 Message.raw("[Level System] ").color(Color.ORANGE),
                 Message.raw("Configuration reloaded successfully!").color(Color.GREEN)
@@ -262,6 +338,8 @@ public class LevelSystemCommand extends AbstractAsyncCommand {
         context.sendMessage(Message.raw("/seyon-level addexp <player> <category> <amount> - Grant experience (admin)").color(Color.GRAY));
         context.sendMessage(Message.raw("/seyon-level setlevel <player> <category> <level> - Set player level (admin)").color(Color.GRAY));
         context.sendMessage(Message.raw("/seyon-level resetskills <player> <category> - Reset skills (admin)").color(Color.GRAY));
+        context.sendMessage(Message.raw("/seyon-level export <uuid> - Export player data as JSON (admin)").color(Color.GRAY));
+        context.sendMessage(Message.raw("/seyon-level import <uuid> - Import player data from a JSON export (admin)").color(Color.GRAY));
         context.sendMessage(Message.raw("/seyon-level reload - Reload configuration").color(Color.GRAY));
         
         return CompletableFuture.completedFuture(null);
@@ -1,5 +1,7 @@
 package dev.seyon.leveling.config;
 
+import java.util.Objects;
+
 /**
  * EXP curve configuration
  */
@@ -8,6 +10,8 @@ public class ExpCurveConfig {
     private double base = 100.0;
     private double multiplier = 1.5;
     private String custom_formula = "base * pow(multiplier, level - 1)";
+    /** Parsed custom_formula (not serialized) */
+    private transient volatile CompiledFormula compiled;
 
     public String getType() {
         return type;
@@ -63,69 +67,69 @@ public class ExpCurveConfig {
     }
 
     /**
-     * Evaluate custom formula
-     * Simple implementation - supports basic math expressions
+     * Compile a custom formula now, so a broken one is rejected when the config is loaded instead of
+     * falling back to the exponential curve in game
+     * @throws IllegalArgumentException if the curve is custom and its formula does not compile
+     */
+    public void validate() {
+        String error = getFormulaError();
+        if (error != null) {
+            throw new IllegalArgumentException("custom_formula \"" + custom_formula + "\": " + error);
+        }
+    }
+
+    /**
+     * Parse error of custom_formula, or null if it compiles (or the curve is not custom)
+     */
+    public String getFormulaError() {
+        if (!"custom".equalsIgnoreCase(type)) {
+            return null;
+        }
+        return compiledFormula().error;
+    }
+
+    /**
+     * Evaluate custom formula (compiled once per formula text)
      */
     private double evaluateCustomFormula(int level) {
-        try {
-            // Replace variables
-            String formula = custom_formula
-                .replace("base", String.valueOf(base))
-                .replace("multiplier", String.valueOf(multiplier))
-                .replace("level", String.valueOf(level));
-            
-            // Use Java's built-in math for pow function
-            if (formula.contains("pow(")) {
-                // Simple pow extraction: pow(a, b)
-                int powStart = formula.indexOf("pow(");
-                int powEnd = formula.indexOf(")", powStart);
-                if (powStart >= 0 && powEnd > powStart) {
-                    String powContent = formula.substring(powStart + 4, powEnd);
-                    String[] parts = powContent.split(",");
-                    if (parts.length == 2) {
-                        double a = Double.parseDouble(parts[0].trim());
-                        double b = Double.parseDouble(parts[1].trim());
-                        double result = Math.pow(a, b);
-                        formula = formula.substring(0, powStart) + result + formula.substring(powEnd + 1);
-                    }
-                }
-            }
-            
-            // Evaluate simple arithmetic
-            return evaluateSimpleExpression(formula);
-        } catch (Exception e) {
+        ExpFormula formula = compiledFormula().formula;
+        if (formula == null) {
             // Fallback to exponential
             return base * Math.pow(multiplier, level - 1);
         }
+        double value = formula.evaluate(base, multiplier, level);
+        return Double.isFinite(value) ? value : base * Math.pow(multiplier, level - 1);
+    }
+
+    private CompiledFormula compiledFormula() {
+        CompiledFormula current = compiled;
+        if (current == null || !Objects.equals(current.source, custom_formula)) {
+            current = CompiledFormula.of(custom_formula);
+            compiled = current;
+        }
+        return current;
     }
 
     /**
-     * Evaluate simple arithmetic expression
+     * Parsed custom_formula, or the parse error
      */
-    private double evaluateSimpleExpression(String expr) {
-        expr = expr.trim();
-        
-        // Handle multiplication
-        if (expr.contains("*")) {
-            String[] parts = expr.split("\\*");
-            double result = Double.parseDouble(parts[0].trim());
-            for (int i = 1; i < parts.length; i++) {
-                result *= Double.parseDouble(parts[i].trim());
-            }
-            return result;
+    private static final class CompiledFormula {
+        final String source;
+        final ExpFormula formula;
+        final String error;
+
+        private CompiledFormula(String source, ExpFormula formula, String error) {
+            this.source = source;
+            this.formula = formula;
+            this.error = error;
         }
-        
-        // Handle addition
-        if (expr.contains("+")) {
-            String[] parts = expr.split("\\+");
-            double result = 0;
-            for (String part : parts) {
-                result += Double.parseDouble(part.trim());
+
+        static CompiledFormula of(String source) {
+            try {
+                return new CompiledFormula(source, ExpFormula.compile(source), null);
+            } catch (IllegalArgumentException e) {
+                return new CompiledFormula(source, null, e.getMessage());
             }
-            return result;
         }
-        
-        // Just a number
-        return Double.parseDouble(expr);
     }
 }
@@ -0,0 +1,253 @@
+package dev.seyon.leveling.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Custom EXP curve formula, parsed once into a tree of nodes and then evaluated per level.
+ * <p>
+ * Syntax: numbers, the variables {@code level}, {@code base} and {@code multiplier}, operators
+ * {@code + - * / % ^} (usual precedence, {@code ^} right-associative), parentheses and the
+ * functions pow, min, max (2 args), log (natural), log10, sqrt, exp, abs, floor, ceil, round.
+ * Example: {@code base * pow(multiplier, level - 1) + 10 * floor(level / 5)}
+ */
+public final class ExpFormula {
+
+    /** Variable slots passed to {@link Node#evaluate} */
+    private static final List<String> VARIABLES = List.of("level", "base", "multiplier");
+
+    private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS = Map.of(
+        "log", Math::log,
+        "log10", Math::log10,
+        "sqrt", Math::sqrt,
+        "exp", Math::exp,
+        "abs", Math::abs,
+        "floor", Math::floor,
+        "ceil", Math::ceil,
+        "round", value -> Math.round(value)
+    );
+    private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS = Map.of(
+        "pow", Math::pow,
+        "min", Math::min,
+        "max", Math::max
+    );
+
+    private final String source;
+    private final Node root;
+
+    private ExpFormula(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    /**
+     * Parse a formula
+     *
+     * @throws IllegalArgumentException with the position of the first error
+     */
+    public static ExpFormula compile(String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Empty formula");
+        }
+        Parser parser = new Parser(source);
+        Node root = parser.parseExpression();
+        parser.skipWhitespace();
+        if (parser.pos < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.pos) + "'");
+        }
+        return new ExpFormula(source, root);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public double evaluate(double base, double multiplier, int level) {
+        return root.evaluate(new double[] {level, base, multiplier});
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        double evaluate(double[] variables);
+    }
+
+    /**
+     * Recursive descent: expression = term (('+' | '-') term)*, term = unary (('*' | '/' | '%') unary)*,
+     * unary = ('-' | '+') unary | power, power = primary ('^' unary)?
+     */
+    private static final class Parser {
+        private final String input;
+        private int pos;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        Node parseExpression() {
+            Node left = parseTerm();
+            while (true) {
+                if (consume('+')) {
+                    Node l = left, r = parseTerm();
+                    left = v -> l.evaluate(v) + r.evaluate(v);
+                } else if (consume('-')) {
+                    Node l = left, r = parseTerm();
+                    left = v -> l.evaluate(v) - r.evaluate(v);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseTerm() {
+            Node left = parseUnary();
+            while (true) {
+                if (consume('*')) {
+                    Node l = left, r = parseUnary();
+                    left = v -> l.evaluate(v) * r.evaluate(v);
+                } else if (consume('/')) {
+                    Node l = left, r = parseUnary();
+                    left = v -> l.evaluate(v) / r.evaluate(v);
+                } else if (consume('%')) {
+                    Node l = left, r = parseUnary();
+                    left = v -> l.evaluate(v) % r.evaluate(v);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseUnary() {
+            if (consume('-')) {
+                Node operand = parseUnary();
+                return v -> -operand.evaluate(v);
+            }
+            if (consume('+')) {
+                return parseUnary();
+            }
+            return parsePower();
+        }
+
+        Node parsePower() {
+            Node base = parsePrimary();
+            if (consume('^')) {
+                Node exponent = parseUnary();
+                return v -> Math.pow(base.evaluate(v), exponent.evaluate(v));
+            }
+            return base;
+        }
+
+        Node parsePrimary() {
+            skipWhitespace();
+            if (consume('(')) {
+                Node inner = parseExpression();
+                expect(')');
+                return inner;
+            }
+            if (pos < input.length() && (Character.isDigit(input.charAt(pos)) || input.charAt(pos) == '.')) {
+                return parseNumber();
+            }
+            if (pos < input.length() && Character.isLetter(input.charAt(pos))) {
+                return parseIdentifier();
+            }
+            throw error(pos < input.length() ? "Unexpected '" + input.charAt(pos) + "'" : "Unexpected end of formula");
+        }
+
+        private Node parseNumber() {
+            int start = pos;
+            while (pos < input.length() && (Character.isDigit(input.charAt(pos)) || input.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos < input.length() && (input.charAt(pos) == 'e' || input.charAt(pos) == 'E')) {
+                int mark = pos++;
+                if (pos < input.length() && (input.charAt(pos) == '+' || input.charAt(pos) == '-')) {
+                    pos++;
+                }
+                if (pos < input.length() && Character.isDigit(input.charAt(pos))) {
+                    while (pos < input.length() && Character.isDigit(input.charAt(pos))) {
+                        pos++;
+                    }
+                } else {
+                    pos = mark;
+                }
+            }
+            double value;
+            try {
+                value = Double.parseDouble(input.substring(start, pos));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Invalid number");
+            }
+            return v -> value;
+        }
+
+        private Node parseIdentifier() {
+            int start = pos;
+            while (pos < input.length() && (Character.isLetterOrDigit(input.charAt(pos)) || input.charAt(pos) == '_')) {
+                pos++;
+            }
+            String name = input.substring(start, pos);
+            if (consume('(')) {
+                List<Node> args = new ArrayList<>();
+                if (!consume(')')) {
+                    do {
+                        args.add(parseExpression());
+                    } while (consume(','));
+                    expect(')');
+                }
+                return function(name, args, start);
+            }
+            int slot = VARIABLES.indexOf(name);
+            if (slot < 0) {
+                pos = start;
+                throw error("Unknown variable '" + name + "' (use level, base or multiplier)");
+            }
+            return v -> v[slot];
+        }
+
+        private Node function(String name, List<Node> args, int start) {
+            DoubleUnaryOperator unary = UNARY_FUNCTIONS.get(name);
+            if (unary != null && args.size() == 1) {
+                Node arg = args.get(0);
+                return v -> unary.applyAsDouble(arg.evaluate(v));
+            }
+            DoubleBinaryOperator binary = BINARY_FUNCTIONS.get(name);
+            if (binary != null && args.size() == 2) {
+                Node a = args.get(0), b = args.get(1);
+                return v -> binary.applyAsDouble(a.evaluate(v), b.evaluate(v));
+            }
+            pos = start;
+            if (unary != null || binary != null) {
+                throw error("Wrong number of arguments for " + name + "()");
+            }
+            throw error("Unknown function '" + name + "'");
+        }
+
+        void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + (pos + 1) + " in \"" + input + "\"");
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class LevelSystemMainConfig {
     private ModInfo mod_info = new ModInfo();
     private GlobalSettings global_settings = new GlobalSettings();
     private MilestoneIntervals milestone_intervals = new MilestoneIntervals();
+    private PersistenceSettings persistence = new PersistenceSettings();
 
     public ModInfo getModInfo() {
         return mod_info;
@@ -36,6 +37,14 @@ public class LevelSystemMainConfig {
         this.milestone_intervals = milestone_intervals;
     }
 
+    public PersistenceSettings getPersistence() {
+        return persistence;
+    }
+
+    public void setPersistence(PersistenceSettings persistence) {
+        this.persistence = persistence;
+    }
+
     /**
      * Merge from loaded config: file values (non-null) override this. Used when merging file over Java defaults.
      */
@@ -44,6 +53,7 @@ public class LevelSystemMainConfig {
         if (from.mod_info != null) mod_info.mergeFrom(from.mod_info);
         if (from.global_settings != null) global_settings.mergeFrom(from.global_settings);
         if (from.milestone_intervals != null) milestone_intervals.mergeFrom(from.milestone_intervals);
+        if (from.persistence != null) persistence.mergeFrom(from.persistence);
     }
 
     public static class ModInfo {
@@ -89,6 +99,18 @@ public class LevelSystemMainConfig {
         private int skill_points_per_level = 1;
         private boolean allow_skill_respec = true;
         private String respec_cost_type = "items";
+        /** EXP grants from gameplay events are summed per player and category and applied once per window (0 = immediately) */
+        private long exp_aggregation_window_ms = 250;
+        /** EXP notifications: at most one per category and interval (showing the sum), at most N per player and second */
+        private long exp_notification_interval_ms = 1000;
+        private int exp_notification_max_per_second = 4;
+        /** Exploration walk EXP: player positions are sampled every N ticks */
+        private int exploration_sample_ticks = 4;
+        /** Kill EXP is shared by all players who damaged the victim, by damage dealt (false = killing blow only) */
+        private boolean kill_exp_split_by_damage = true;
+        /** Player-placed blocks are remembered this long (0 = off); breaking them gives placed_block_exp_factor of the EXP */
+        private long placed_block_memory_ms = 3_600_000L;
+        private double placed_block_exp_factor = 0.0;
 
         public int getMaxLevel() {
             return max_level;
@@ -130,6 +152,62 @@ public class LevelSystemMainConfig {
             this.respec_cost_type = respec_cost_type;
         }
 
+        public long getExpAggregationWindowMs() {
+            return exp_aggregation_window_ms;
+        }
+
+        public void setExpAggregationWindowMs(long exp_aggregation_window_ms) {
+            this.exp_aggregation_window_ms = exp_aggregation_window_ms;
+        }
+
+        public long getExpNotificationIntervalMs() {
+            return exp_notification_interval_ms;
+        }
+
+        public void setExpNotificationIntervalMs(long exp_notification_interval_ms) {
+            this.exp_notification_interval_ms = exp_notification_interval_ms;
+        }
+
+        public int getExpNotificationMaxPerSecond() {
+            return exp_notification_max_per_second;
+        }
+
+        public void setExpNotificationMaxPerSecond(int exp_notification_max_per_second) {
+            this.exp_notification_max_per_second = exp_notification_max_per_second;
+        }
+
+        public int getExplorationSampleTicks() {
+            return exploration_sample_ticks;
+        }
+
+        public void setExplorationSampleTicks(int exploration_sample_ticks) {
+            this.exploration_sample_ticks = exploration_sample_ticks;
+        }
+
+        public boolean isKillExpSplitByDamage() {
+            return kill_exp_split_by_damage;
+        }
+
+        public void setKillExpSplitByDamage(boolean kill_exp_split_by_damage) {
+            this.kill_exp_split_by_damage = kill_exp_split_by_damage;
+        }
+
+        public long getPlacedBlockMemoryMs() {
+            return placed_block_memory_ms;
+        }
+
+        public void setPlacedBlockMemoryMs(long placed_block_memory_ms) {
+            this.placed_block_memory_ms = placed_block_memory_ms;
+        }
+
+        public double getPlacedBlockExpFactor() {
+            return placed_block_exp_factor;
+        }
+
+        public void setPlacedBlockExpFactor(double placed_block_exp_factor) {
+            this.placed_block_exp_factor = placed_block_exp_factor;
+        }
+
         public void mergeFrom(GlobalSettings from) {
             if (from == null) return;
             this.max_level = from.max_level;
@@ -137,6 +215,13 @@ public class LevelSystemMainConfig {
             this.skill_points_per_level = from.skill_points_per_level;
             this.allow_skill_respec = from.allow_skill_respec;
             if (from.respec_cost_type != null) this.respec_cost_type = from.respec_cost_type;
+            if (from.exp_aggregation_window_ms >= 0) this.exp_aggregation_window_ms = from.exp_aggregation_window_ms;
+            if (from.exp_notification_interval_ms >= 0) this.exp_notification_interval_ms = from.exp_notification_interval_ms;
+            if (from.exp_notification_max_per_second > 0) this.exp_notification_max_per_second = from.exp_notification_max_per_second;
+            if (from.exploration_sample_ticks > 0) this.exploration_sample_ticks = from.exploration_sample_ticks;
+            this.kill_exp_split_by_damage = from.kill_exp_split_by_damage;
+            if (from.placed_block_memory_ms >= 0) this.placed_block_memory_ms = from.placed_block_memory_ms;
+            if (from.placed_block_exp_factor >= 0) this.placed_block_exp_factor = from.placed_block_exp_factor;
         }
     }
 
@@ -168,4 +253,193 @@ public class LevelSystemMainConfig {
             }
         }
     }
+
+    /**
+     * Player data persistence (write-behind flushing, group-commit fsync, journal, offline cache).
+     */
+    public static class PersistenceSettings {
+        /** If true, mutations only mark the player dirty; a background flusher writes at most once per interval. */
+        private boolean write_behind_enabled = true;
+        /** Storage backend: "file" (one file per player) or "sqlite" (embedded database, SeyonLevelSystem/playerdata.db) */
+        private String storage_backend = "file";
+        /** Player file format: "binary" (compact, &lt;uuid&gt;.dat) or "json" (&lt;uuid&gt;.json). Files are migrated on load. */
+        private String player_data_format = "binary";
+        private long flush_interval_ms = 5000;
+        /** Max players waiting for a flush. When full, the caller writes synchronously (backpressure). */
+        private int max_pending_writes = 1024;
+        /** If true, saves are fsynced in batches: one durability barrier per window for all players. */
+        private boolean group_commit_fsync = true;
+        private long fsync_window_ms = 200;
+        /** If true, category mutations are appended to a sharded journal and compacted into player files periodically. */
+        private boolean journal_enabled = false;
+        private int journal_shards = 16;
+        private long journal_compaction_interval_ms = 300000;
+        /** Journal records are fsynced this often; a power loss can lose the last interval (0 = fsync every append) */
+        private long journal_fsync_interval_ms = 200;
+        /** Max offline players (API/command lookups) kept in memory; online players are always kept */
+        private int offline_cache_max_players = 1000;
+        /** Drop an offline player's data this long after the last lookup */
+        private long offline_cache_ttl_ms = 600000;
+        /** Safety-net save of players with unsaved changes (0 = off); each run is jittered by up to 10% */
+        private long autosave_interval_ms = 300000;
+        /** Threads and hard deadline for saving all players on shutdown */
+        private int shutdown_save_threads = 4;
+        private long shutdown_save_timeout_ms = 30000;
+
+        public boolean isWriteBehindEnabled() {
+            return write_behind_enabled;
+        }
+
+        public void setWriteBehindEnabled(boolean write_behind_enabled) {
+            this.write_behind_enabled = write_behind_enabled;
+        }
+
+        public String getStorageBackend() {
+            return storage_backend;
+        }
+
+        public void setStorageBackend(String storage_backend) {
+            this.storage_backend = storage_backend;
+        }
+
+        public boolean isSqliteBackend() {
+            return "sqlite".equalsIgnoreCase(storage_backend);
+        }
+
+        public String getPlayerDataFormat() {
+            return player_data_format;
+        }
+
+        public void setPlayerDataFormat(String player_data_format) {
+            this.player_data_format = player_data_format;
+        }
+
+        public boolean isBinaryFormat() {
+            return !"json".equalsIgnoreCase(player_data_format);
+        }
+
+        public long getFlushIntervalMs() {
+            return flush_interval_ms;
+        }
+
+        public void setFlushIntervalMs(long flush_interval_ms) {
+            this.flush_interval_ms = flush_interval_ms;
+        }
+
+        public int getMaxPendingWrites() {
+            return max_pending_writes;
+        }
+
+        public void setMaxPendingWrites(int max_pending_writes) {
+            this.max_pending_writes = max_pending_writes;
+        }
+
+        public boolean isGroupCommitFsync() {
+            return group_commit_fsync;
+        }
+
+        public void setGroupCommitFsync(boolean group_commit_fsync) {
+            this.group_commit_fsync = group_commit_fsync;
+        }
+
+        public long getFsyncWindowMs() {
+            return fsync_window_ms;
+        }
+
+        public void setFsyncWindowMs(long fsync_window_ms) {
+            this.fsync_window_ms = fsync_window_ms;
+        }
+
+        public boolean isJournalEnabled() {
+            return journal_enabled;
+        }
+
+        public void setJournalEnabled(boolean journal_enabled) {
+            this.journal_enabled = journal_enabled;
+        }
+
+        public int getJournalShards() {
+            return journal_shards;
+        }
+
+        public void setJournalShards(int journal_shards) {
+            this.journal_shards = journal_shards;
+        }
+
+        public long getJournalCompactionIntervalMs() {
+            return journal_compaction_interval_ms;
+        }
+
+        public void setJournalCompactionIntervalMs(long journal_compaction_interval_ms) {
+            this.journal_compaction_interval_ms = journal_compaction_interval_ms;
+        }
+
+        public long getJournalFsyncIntervalMs() {
+            return journal_fsync_interval_ms;
+        }
+
+        public void setJournalFsyncIntervalMs(long journal_fsync_interval_ms) {
+            this.journal_fsync_interval_ms = journal_fsync_interval_ms;
+        }
+
+        public int getOfflineCacheMaxPlayers() {
+            return offline_cache_max_players;
+        }
+
+        public void setOfflineCacheMaxPlayers(int offline_cache_max_players) {
+            this.offline_cache_max_players = offline_cache_max_players;
+        }
+
+        public long getOfflineCacheTtlMs() {
+            return offline_cache_ttl_ms;
+        }
+
+        public void setOfflineCacheTtlMs(long offline_cache_ttl_ms) {
+            this.offline_cache_ttl_ms = offline_cache_ttl_ms;
+        }
+
+        public long getAutosaveIntervalMs() {
+            return autosave_interval_ms;
+        }
+
+        public void setAutosaveIntervalMs(long autosave_interval_ms) {
+            this.autosave_interval_ms = autosave_interval_ms;
+        }
+
+        public int getShutdownSaveThreads() {
+            return shutdown_save_threads;
+        }
+
+        public void setShutdownSaveThreads(int shutdown_save_threads) {
+            this.shutdown_save_threads = shutdown_save_threads;
+        }
+
+        public long getShutdownSaveTimeoutMs() {
+            return shutdown_save_timeout_ms;
+        }
+
+        public void setShutdownSaveTimeoutMs(long shutdown_save_timeout_ms) {
+            this.shutdown_save_timeout_ms = shutdown_save_timeout_ms;
+        }
+
+        public void mergeFrom(PersistenceSettings from) {
+            if (from == null) return;
+            this.write_behind_enabled = from.write_behind_enabled;
+            if (from.storage_backend != null) this.storage_backend = from.storage_backend;
+            if (from.player_data_format != null) this.player_data_format = from.player_data_format;
+            if (from.flush_interval_ms > 0) this.flush_interval_ms = from.flush_interval_ms;
+            if (from.max_pending_writes > 0) this.max_pending_writes = from.max_pending_writes;
+            this.group_commit_fsync = from.group_commit_fsync;
+            if (from.fsync_window_ms > 0) this.fsync_window_ms = from.fsync_window_ms;
+            this.journal_enabled = from.journal_enabled;
+            if (from.journal_shards > 0) this.journal_shards = from.journal_shards;
+            if (from.journal_compaction_interval_ms > 0) this.journal_compaction_interval_ms = from.journal_compaction_interval_ms;
+            if (from.journal_fsync_interval_ms >= 0) this.journal_fsync_interval_ms = from.journal_fsync_interval_ms;
+            if (from.offline_cache_max_players > 0) this.offline_cache_max_players = from.offline_cache_max_players;
+            if (from.offline_cache_ttl_ms > 0) this.offline_cache_ttl_ms = from.offline_cache_ttl_ms;
+            if (from.autosave_interval_ms >= 0) this.autosave_interval_ms = from.autosave_interval_ms;
+            if (from.shutdown_save_threads > 0) this.shutdown_save_threads = from.shutdown_save_threads;
+            if (from.shutdown_save_timeout_ms > 0) this.shutdown_save_timeout_ms = from.shutdown_save_timeout_ms;
+        }
+    }
 }
@@ -6,12 +6,14 @@ import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.component.system.EntityEventSystem;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
+import dev.seyon.leveling.service.PlacedBlockIndex;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 
 import javax.annotation.Nonnull;
@@ -23,6 +25,8 @@ import javax.annotation.Nullable;
  * Formula: exp * difficulty_factor per block. Column counting for woodcutting was removed:
  * it is not reliable (blocks above may or may not fall depending on position); if needed,
  * it would have to be driven by a Hytale event that reports the actual felled blocks.
+ * Blocks a player placed recently (see {@link dev.seyon.leveling.service.PlacedBlockIndex}) only give
+ * {@code placed_block_exp_factor} of the EXP, so placing and re-breaking an ore is not an EXP farm.
  */
 public class BreakBlockExpSystem extends EntityEventSystem<EntityStore, BreakBlockEvent> {
 
@@ -49,15 +53,9 @@ public class BreakBlockExpSystem extends EntityEventSystem<EntityStore, BreakBlo
             return;
         }
 
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
-        String actionId = "break_" + blockId;
-        if (!actionRegistry.hasAction(actionId)) {
-            String fallback = "break_" + blockId.toLowerCase();
-            if (actionRegistry.hasAction(fallback)) actionId = fallback;
-            else return;
-        }
-
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(actionId);
+        // break_<blockId>, then break_<blockid> (resolved once per block type)
+        ActionRegistryService.ActionMapping mapping = plugin.getActionRegistryService()
+            .resolve(ActionRegistryService.ActionKind.BREAK, blockId);
         if (mapping == null) {
             return;
         }
@@ -68,11 +66,18 @@ public class BreakBlockExpSystem extends EntityEventSystem<EntityStore, BreakBlo
         }
 
         double totalExp = mapping.getExp() * mapping.getDifficultyFactor();
+        PlacedBlockIndex placedBlocks = plugin.getPlacedBlockIndex();
+        if (placedBlocks.isEnabled()) {
+            Vector3i pos = event.getTargetBlock();
+            if (placedBlocks.isPlayerPlaced(store.getExternalData().getWorld().getName(), pos.getX(), pos.getY(), pos.getZ())) {
+                totalExp *= placedBlocks.getExpFactor();
+            }
+        }
         if (totalExp <= 0) {
             return;
         }
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), totalExp, player);
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        expGrants.add(playerId, mapping.getCategoryId(), totalExp, player);
     }
 
     @Nullable
@@ -12,7 +12,7 @@ import com.hypixel.hytale.server.core.event.events.ecs.CraftRecipeEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -23,8 +23,6 @@ import javax.annotation.Nullable;
  */
 public class CraftRecipeExpSystem extends EntityEventSystem<EntityStore, CraftRecipeEvent.Post> {
 
-    private static final String ACTION_CRAFT_ITEM = "craft_item";
-
     private final SeyonLevelSystemPlugin plugin;
 
     public CraftRecipeExpSystem(SeyonLevelSystemPlugin plugin) {
@@ -44,16 +42,11 @@ public class CraftRecipeExpSystem extends EntityEventSystem<EntityStore, CraftRe
         }
 
         int quantity = Math.max(1, event.getQuantity());
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
 
-        // Try "craft_<recipeId>" first, then fallback to "craft_item"
+        // Try "craft_<recipeId>" first, then fallback to "craft_item" (resolved once per recipe)
         String recipeId = event.getCraftedRecipe().getId();
-        String actionId = actionRegistry.hasAction("craft_" + recipeId) ? "craft_" + recipeId : ACTION_CRAFT_ITEM;
-        if (!actionRegistry.hasAction(actionId)) {
-            return;
-        }
-
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(actionId);
+        ActionRegistryService.ActionMapping mapping = plugin.getActionRegistryService()
+            .resolve(ActionRegistryService.ActionKind.CRAFT, recipeId);
         if (mapping == null) {
             return;
         }
@@ -64,8 +57,8 @@ public class CraftRecipeExpSystem extends EntityEventSystem<EntityStore, CraftRe
         }
 
         double exp = mapping.getExp() * quantity;
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), exp, player);
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        expGrants.add(playerId, mapping.getCategoryId(), exp, player);
     }
 
     @Nullable
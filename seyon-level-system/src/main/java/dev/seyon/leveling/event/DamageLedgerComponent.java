@@ -0,0 +1,145 @@
+package dev.seyon.leveling.event;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Damage dealt by players to one entity, so {@link EntityKillExpSystem} can split kill EXP by contribution.
+ * Added by {@link DamageLedgerSystem} on the first player hit, removed on death and dropped with the entity.
+ * <p>
+ * Attackers are kept as UUID bits in a {@code long[]} (two per attacker) next to a {@code float[]} of damage.
+ * The arrays start with room for one attacker and grow up to {@value #MAX_ATTACKERS}; after that a new
+ * attacker only replaces the smallest contributor if it hit harder. Recording a hit by a known attacker
+ * does not allocate.
+ */
+public class DamageLedgerComponent implements Component<EntityStore> {
+
+    /** Most attackers tracked per victim */
+    public static final int MAX_ATTACKERS = 8;
+
+    private long[] attackers;
+    private float[] damage;
+    /** Bit i: attacker i's last hit was ranged */
+    private int rangedMask;
+    private int count;
+    private double total;
+
+    public DamageLedgerComponent() {
+        this.attackers = new long[2];
+        this.damage = new float[1];
+    }
+
+    private DamageLedgerComponent(long[] attackers, float[] damage, int rangedMask, int count, double total) {
+        this.attackers = attackers;
+        this.damage = damage;
+        this.rangedMask = rangedMask;
+        this.count = count;
+        this.total = total;
+    }
+
+    /**
+     * Add a hit of a player
+     */
+    public void record(UUID attacker, float amount, boolean ranged) {
+        if (amount <= 0) {
+            return;
+        }
+        long msb = attacker.getMostSignificantBits();
+        long lsb = attacker.getLeastSignificantBits();
+        int index = indexOf(msb, lsb);
+        if (index < 0) {
+            index = addAttacker(msb, lsb, amount);
+            if (index < 0) {
+                return;
+            }
+        } else {
+            damage[index] += amount;
+        }
+        total += amount;
+        if (ranged) {
+            rangedMask |= 1 << index;
+        } else {
+            rangedMask &= ~(1 << index);
+        }
+    }
+
+    public boolean contains(UUID attacker) {
+        return indexOf(attacker.getMostSignificantBits(), attacker.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * Number of tracked attackers
+     */
+    public int size() {
+        return count;
+    }
+
+    public UUID getAttacker(int index) {
+        return new UUID(attackers[index * 2], attackers[index * 2 + 1]);
+    }
+
+    public float getDamage(int index) {
+        return damage[index];
+    }
+
+    /**
+     * Whether the attacker's last hit was ranged
+     */
+    public boolean isRanged(int index) {
+        return (rangedMask & (1 << index)) != 0;
+    }
+
+    /**
+     * Damage of all tracked attackers
+     */
+    public double getTotalDamage() {
+        return total;
+    }
+
+    private int indexOf(long msb, long lsb) {
+        for (int i = 0; i < count; i++) {
+            if (attackers[i * 2] == msb && attackers[i * 2 + 1] == lsb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return slot of the new attacker (damage set), or -1 if the ledger is full and the hit is too small
+     */
+    private int addAttacker(long msb, long lsb, float amount) {
+        int index;
+        if (count < MAX_ATTACKERS) {
+            if (count == damage.length) {
+                int capacity = Math.min(MAX_ATTACKERS, count * 2);
+                attackers = Arrays.copyOf(attackers, capacity * 2);
+                damage = Arrays.copyOf(damage, capacity);
+            }
+            index = count++;
+        } else {
+            index = 0;
+            for (int i = 1; i < count; i++) {
+                if (damage[i] < damage[index]) {
+                    index = i;
+                }
+            }
+            if (damage[index] >= amount) {
+                return -1;
+            }
+            total -= damage[index];
+        }
+        attackers[index * 2] = msb;
+        attackers[index * 2 + 1] = lsb;
+        damage[index] = amount;
+        return index;
+    }
+
+    @Override
+    public DamageLedgerComponent clone() {
+        return new DamageLedgerComponent(attackers.clone(), damage.clone(), rangedMask, count, total);
+    }
+}
@@ -0,0 +1,89 @@
+package dev.seyon.leveling.event;
+
+import com.hypixel.hytale.component.Archetype;
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.SystemGroup;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageEventSystem;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageModule;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * DamageEventSystem: records damage dealt by players in the victim's {@link DamageLedgerComponent},
+ * so kill EXP can be shared by everyone who fought (see {@link EntityKillExpSystem}).
+ * Runs in the inspect group, after armor and cancellation, so the ledger holds the damage actually taken.
+ */
+public class DamageLedgerSystem extends DamageEventSystem {
+
+    private final ComponentType<EntityStore, DamageLedgerComponent> ledgerType;
+
+    public DamageLedgerSystem(ComponentType<EntityStore, DamageLedgerComponent> ledgerType) {
+        this.ledgerType = ledgerType;
+    }
+
+    @Nullable
+    @Override
+    public SystemGroup<EntityStore> getGroup() {
+        return DamageModule.get().getInspectDamageGroup();
+    }
+
+    @Override
+    public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk,
+                       @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer,
+                       @Nonnull Damage damage) {
+        if (damage.isCancelled() || damage.getAmount() <= 0) {
+            return;
+        }
+        if (!(damage.getSource() instanceof Damage.EntitySource entitySource)) {
+            return;
+        }
+        Player attacker = store.getComponent(entitySource.getRef(), Player.getComponentType());
+        if (attacker == null) {
+            return;
+        }
+        UUID attackerId = dev.seyon.core.PlayerUtils.getPlayerUUID(attacker);
+        if (attackerId == null) {
+            return;
+        }
+        boolean ranged = entitySource instanceof Damage.ProjectileSource;
+
+        float amount = damage.getAmount();
+        DamageLedgerComponent ledger = archetypeChunk.getComponent(index, ledgerType);
+        if (ledger != null) {
+            ledger.record(attackerId, amount, ranged);
+            return;
+        }
+        // First player hit on this entity: attach the ledger when the command buffer runs. Another hit
+        // in the same tick also sees no ledger yet, so each one records into whatever is attached by then.
+        Ref<EntityStore> ref = archetypeChunk.getReferenceTo(index);
+        commandBuffer.run(entityStore -> {
+            if (!ref.isValid()) {
+                return;
+            }
+            DamageLedgerComponent attached = entityStore.getComponent(ref, ledgerType);
+            if (attached != null) {
+                attached.record(attackerId, amount, ranged);
+                return;
+            }
+            DamageLedgerComponent created = new DamageLedgerComponent();
+            created.record(attackerId, amount, ranged);
+            entityStore.putComponent(ref, ledgerType, created);
+        });
+    }
+
+    @Nullable
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Archetype.empty();
+    }
+}
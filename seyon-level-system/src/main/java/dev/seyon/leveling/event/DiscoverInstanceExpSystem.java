@@ -12,7 +12,7 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -60,8 +60,8 @@ public class DiscoverInstanceExpSystem extends EntityEventSystem<EntityStore, Di
             return;
         }
 
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), mapping.getExp(), player);
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        expGrants.add(playerId, mapping.getCategoryId(), mapping.getExp(), player);
     }
 
     @Nullable
@@ -2,6 +2,7 @@ package dev.seyon.leveling.event;
 
 import com.hypixel.hytale.component.Archetype;
 import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.query.Query;
@@ -10,67 +11,130 @@ import com.hypixel.hytale.server.core.modules.entity.damage.DeathComponent;
 import com.hypixel.hytale.server.core.modules.entity.damage.DeathSystems;
 import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
+import dev.seyon.leveling.service.LevelSystemDataService;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.UUID;
 
 /**
- * OnDeathSystem: when an entity dies and the killer is a player, grant Combat Melee or Combat Ranged EXP.
- * - Ranged kill (ProjectileSource): action "kill_enemy_ranged" -> combat_ranged
- * - Melee kill (EntitySource): action "kill_enemy_melee" -> combat_melee
+ * OnDeathSystem: when a player killed or damaged the dying entity, grant Combat Melee or Combat Ranged EXP.
+ * - Ranged (ProjectileSource): action "kill_ranged_<role>", else "kill_enemy_ranged" -> combat_ranged
+ * - Melee (EntitySource): action "kill_melee_<role>", else "kill_enemy_melee" -> combat_melee
+ * <p>
+ * {@code <role>} is the victim's NPC role (e.g. "Skeleton_Fighter"); role actions may be patterns such as
+ * "kill_melee_Skeleton_*". Each role is resolved once per action registry snapshot, so a death costs one
+ * component read and one map lookup. Reward: exp * difficulty_factor.
+ * <p>
+ * With {@code kill_exp_split_by_damage}, the reward is split between all players in the victim's
+ * {@link DamageLedgerComponent} by their share of the damage; melee or ranged follows each player's last hit.
+ * Attackers who disconnected before the kill get no share.
  */
 public class EntityKillExpSystem extends DeathSystems.OnDeathSystem {
 
     private static final String ACTION_KILL_MELEE = "kill_enemy_melee";
     private static final String ACTION_KILL_RANGED = "kill_enemy_ranged";
 
+    /** False once the NPC module turned out to be missing; then every victim has no role */
+    private static volatile boolean npcRolesAvailable = true;
+
     private final SeyonLevelSystemPlugin plugin;
+    private final ComponentType<EntityStore, DamageLedgerComponent> ledgerType;
 
-    public EntityKillExpSystem(SeyonLevelSystemPlugin plugin) {
+    public EntityKillExpSystem(SeyonLevelSystemPlugin plugin, ComponentType<EntityStore, DamageLedgerComponent> ledgerType) {
         this.plugin = plugin;
+        this.ledgerType = ledgerType;
     }
 
     @Override
     public void onComponentAdded(@Nonnull Ref<EntityStore> ref, @Nonnull DeathComponent component,
                                   @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        DamageLedgerComponent ledger = store.getComponent(ref, ledgerType);
+        if (ledger != null) {
+            // Cleared on death: players respawn with the same entity
+            commandBuffer.removeComponent(ref, ledgerType);
+        }
+
         Damage deathInfo = component.getDeathInfo();
         if (deathInfo == null) {
             return;
         }
 
-        Damage.Source source = deathInfo.getSource();
-        if (!(source instanceof Damage.EntitySource entitySource)) {
-            return;
+        Player killer = null;
+        UUID killerId = null;
+        boolean ranged = false;
+        if (deathInfo.getSource() instanceof Damage.EntitySource entitySource) {
+            killer = store.getComponent(entitySource.getRef(), Player.getComponentType());
+            killerId = killer != null ? dev.seyon.core.PlayerUtils.getPlayerUUID(killer) : null;
+            ranged = entitySource instanceof Damage.ProjectileSource;
         }
 
-        Ref<EntityStore> killerRef = entitySource.getRef();
-        Player killer = store.getComponent(killerRef, Player.getComponentType());
-        if (killer == null) {
+        String role = victimRole(ref, store);
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        if (ledger != null && plugin.getConfigService().getMainConfig().getGlobalSettings().isKillExpSplitByDamage()) {
+            if (killerId != null && !ledger.contains(killerId)) {
+                ledger.record(killerId, deathInfo.getAmount(), ranged);
+            }
+            double total = ledger.getTotalDamage();
+            if (total <= 0) {
+                return;
+            }
+            LevelSystemDataService dataService = plugin.getDataService();
+            for (int i = 0; i < ledger.size(); i++) {
+                UUID attackerId = ledger.getAttacker(i);
+                boolean isKiller = attackerId.equals(killerId);
+                if (!isKiller && !dataService.isOnline(attackerId)) {
+                    continue; // Left before the kill: their share is not paid out
+                }
+                ActionRegistryService.ActionMapping mapping = killMapping(role, ledger.isRanged(i));
+                if (mapping == null) {
+                    continue;
+                }
+                double share = ledger.getDamage(i) / total;
+                // Assists are queued without a player entity; the flush tick of that player supplies it
+                expGrants.add(attackerId, mapping.getCategoryId(), mapping.getExp() * mapping.getDifficultyFactor() * share,
+                    isKiller ? killer : null);
+            }
             return;
         }
 
-        String actionId = source instanceof Damage.ProjectileSource ? ACTION_KILL_RANGED : ACTION_KILL_MELEE;
-
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
-        if (!actionRegistry.hasAction(actionId)) {
+        if (killerId == null) {
             return;
         }
-
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(actionId);
+        ActionRegistryService.ActionMapping mapping = killMapping(role, ranged);
         if (mapping == null) {
             return;
         }
+        expGrants.add(killerId, mapping.getCategoryId(), mapping.getExp() * mapping.getDifficultyFactor(), killer);
+    }
 
-        java.util.UUID playerId = dev.seyon.core.PlayerUtils.getPlayerUUID(killer);
-        if (playerId == null) {
-            return;
-        }
+    @Nullable
+    private ActionRegistryService.ActionMapping killMapping(@Nullable String role, boolean ranged) {
+        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
+        return role != null
+            ? actionRegistry.resolve(ranged ? ActionRegistryService.ActionKind.KILL_RANGED : ActionRegistryService.ActionKind.KILL_MELEE, role)
+            : actionRegistry.getActionMapping(ranged ? ACTION_KILL_RANGED : ACTION_KILL_MELEE);
+    }
 
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), mapping.getExp(), killer);
+    /**
+     * NPC role of the victim, or null if it is no NPC (e.g. a player) or the NPC module is not loaded
+     */
+    @Nullable
+    private static String victimRole(Ref<EntityStore> ref, Store<EntityStore> store) {
+        if (!npcRolesAvailable) {
+            return null;
+        }
+        try {
+            NPCEntity npc = store.getComponent(ref, NPCEntity.getComponentType());
+            return npc != null ? npc.getRoleName() : null;
+        } catch (NoClassDefFoundError e) {
+            npcRolesAvailable = false;
+            return null;
+        }
     }
 
     @Nullable
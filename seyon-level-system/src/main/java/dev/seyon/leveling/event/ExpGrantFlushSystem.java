@@ -0,0 +1,50 @@
+package dev.seyon.leveling.event;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import dev.seyon.leveling.SeyonLevelSystemPlugin;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * EntityTickingSystem: applies each player's queued EXP grants (see ExpGrantAccumulator)
+ * once the aggregation window has passed, on the world thread that queued them.
+ */
+public class ExpGrantFlushSystem extends com.hypixel.hytale.component.system.tick.EntityTickingSystem<EntityStore> {
+
+    private final com.hypixel.hytale.component.ComponentType<EntityStore, Player> playerType =
+        Player.getComponentType();
+
+    private final SeyonLevelSystemPlugin plugin;
+
+    public ExpGrantFlushSystem(SeyonLevelSystemPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return playerType;
+    }
+
+    @Override
+    public void tick(float dt, int index, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk,
+                     @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        Player player = archetypeChunk.getComponent(index, playerType);
+        if (player == null) {
+            return;
+        }
+
+        UUID playerId = dev.seyon.core.PlayerUtils.getPlayerUUID(player);
+        if (playerId == null) {
+            return;
+        }
+
+        plugin.getExpGrantAccumulator().drainDue(playerId, player, System.currentTimeMillis());
+    }
+}
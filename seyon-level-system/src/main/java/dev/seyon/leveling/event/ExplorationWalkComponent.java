@@ -0,0 +1,112 @@
+package dev.seyon.leveling.event;
+
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.UUID;
+
+/**
+ * Exploration walk state of one player entity, stored on the entity so {@link ExplorationWalkExpSystem}
+ * reads it straight from the archetype chunk: last sampled position, accumulated walk distance and
+ * current chunk. Added on the player's first tick and dropped with the entity (disconnect or world change).
+ */
+public class ExplorationWalkComponent implements Component<EntityStore> {
+
+    private UUID playerId;
+    private double lastX;
+    private double lastY;
+    private double lastZ;
+    private double accumulatedDistance;
+    private boolean firstSample = true;
+    /** Ticks left until the next position sample */
+    private int ticksUntilSample;
+    /** Ticks since the last sample (the distance cap scales with it) */
+    private int ticksSinceSample;
+    private String chunkWorld;
+    private int chunkX;
+    private int chunkZ;
+
+    public ExplorationWalkComponent() {}
+
+    public ExplorationWalkComponent(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Count a tick
+     * @return true if the position should be sampled on this tick (then the countdown restarts)
+     */
+    public boolean tickSample(int sampleTicks) {
+        ticksSinceSample++;
+        if (--ticksUntilSample > 0) {
+            return false;
+        }
+        ticksUntilSample = sampleTicks;
+        return true;
+    }
+
+    /**
+     * Ticks since the previous sample, then restart counting
+     */
+    public int takeTicksSinceSample() {
+        int ticks = ticksSinceSample;
+        ticksSinceSample = 0;
+        return ticks;
+    }
+
+    public boolean isFirstSample() {
+        return firstSample;
+    }
+
+    public void setLast(double x, double y, double z) {
+        this.lastX = x;
+        this.lastY = y;
+        this.lastZ = z;
+        this.firstSample = false;
+    }
+
+    public double getLastX() { return lastX; }
+    public double getLastY() { return lastY; }
+    public double getLastZ() { return lastZ; }
+
+    public void addDistance(double d) {
+        this.accumulatedDistance += d;
+    }
+
+    public double getAccumulatedDistance() {
+        return accumulatedDistance;
+    }
+
+    /**
+     * @return true if this is another chunk (or world) than on the last call
+     */
+    public boolean enterChunk(String world, int x, int z) {
+        if (world.equals(chunkWorld) && x == chunkX && z == chunkZ) {
+            return false;
+        }
+        this.chunkWorld = world;
+        this.chunkX = x;
+        this.chunkZ = z;
+        return true;
+    }
+
+    @Override
+    public ExplorationWalkComponent clone() {
+        ExplorationWalkComponent copy = new ExplorationWalkComponent(playerId);
+        copy.lastX = lastX;
+        copy.lastY = lastY;
+        copy.lastZ = lastZ;
+        copy.accumulatedDistance = accumulatedDistance;
+        copy.firstSample = firstSample;
+        copy.ticksUntilSample = ticksUntilSample;
+        copy.ticksSinceSample = ticksSinceSample;
+        copy.chunkWorld = chunkWorld;
+        copy.chunkX = chunkX;
+        copy.chunkZ = chunkZ;
+        return copy;
+    }
+}
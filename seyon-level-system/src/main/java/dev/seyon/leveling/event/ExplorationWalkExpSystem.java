@@ -10,32 +10,57 @@ import com.hypixel.hytale.server.core.modules.entity.component.TransformComponen
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
+import dev.seyon.leveling.service.LevelSystemDataService;
 
 import javax.annotation.Nonnull;
-import java.util.Map;
+import javax.annotation.Nullable;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * EntityTickingSystem: every 100 blocks walked, grant Exploration EXP (action: explore_steps).
- * Tracks per-player distance via plugin's walk tracker map; cleaned on disconnect.
+ * EntityTickingSystem: every 100 blocks walked, grant Exploration EXP (action: explore_steps), and
+ * grant EXP for every chunk the player enters for the first time in a world (action: discover_new_chunk).
+ * Visited chunks are kept per world in the player data ({@link dev.seyon.leveling.model.VisitedChunkSet}),
+ * so walking in circles or riding a loop only pays for chunks that are actually new.
+ * <p>
+ * Walk state lives in an {@link ExplorationWalkComponent} on the player entity. Positions are sampled
+ * every {@code exploration_sample_ticks} ticks; the other ticks only count down. The two action mappings
+ * are resolved once per action registry snapshot.
  */
 public class ExplorationWalkExpSystem extends com.hypixel.hytale.component.system.tick.EntityTickingSystem<EntityStore> {
 
     private static final String ACTION_EXPLORE_STEPS = "explore_steps";
+    private static final String ACTION_DISCOVER_NEW_CHUNK = "discover_new_chunk";
     /** Distance in blocks that must be walked to grant one explore_steps EXP. */
     private static final double STEPS_PER_GRANT = 100.0;
+    /** Cap per tick to avoid teleports giving huge EXP (scaled by the ticks between samples) */
+    private static final double MAX_DISTANCE_PER_TICK = 20.0;
+    /** Chunks are 32 x 32 blocks */
+    private static final int CHUNK_SHIFT = 5;
 
     private final com.hypixel.hytale.component.ComponentType<EntityStore, Player> playerType =
         Player.getComponentType();
     private final com.hypixel.hytale.component.ComponentType<EntityStore, TransformComponent> transformType =
         TransformComponent.getComponentType();
+    private final com.hypixel.hytale.component.ComponentType<EntityStore, ExplorationWalkComponent> walkType;
     private final Query<EntityStore> query = Query.and(playerType, transformType);
 
     private final SeyonLevelSystemPlugin plugin;
+    private volatile int sampleTicks = 4;
+    private volatile WalkActions walkActions;
 
-    public ExplorationWalkExpSystem(SeyonLevelSystemPlugin plugin) {
+    public ExplorationWalkExpSystem(SeyonLevelSystemPlugin plugin,
+                                    com.hypixel.hytale.component.ComponentType<EntityStore, ExplorationWalkComponent> walkType) {
         this.plugin = plugin;
+        this.walkType = walkType;
+    }
+
+    /**
+     * Sample positions every N ticks (1 = every tick)
+     */
+    public void setSampleTicks(int sampleTicks) {
+        this.sampleTicks = Math.max(1, sampleTicks);
     }
 
     @Nonnull
@@ -47,98 +72,110 @@ public class ExplorationWalkExpSystem extends com.hypixel.hytale.component.syste
     @Override
     public void tick(float dt, int index, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk,
                      @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
-        Player player = archetypeChunk.getComponent(index, playerType);
-        TransformComponent transform = archetypeChunk.getComponent(index, transformType);
-        if (player == null || transform == null) {
+        ExplorationWalkComponent walk = archetypeChunk.getComponent(index, walkType);
+        if (walk == null) {
+            Player player = archetypeChunk.getComponent(index, playerType);
+            UUID playerId = player != null ? dev.seyon.core.PlayerUtils.getPlayerUUID(player) : null;
+            if (playerId != null) {
+                commandBuffer.addComponent(archetypeChunk.getReferenceTo(index), walkType, new ExplorationWalkComponent(playerId));
+            }
             return;
         }
-
-        UUID playerId = dev.seyon.core.PlayerUtils.getPlayerUUID(player);
-        if (playerId == null) {
+        if (!walk.tickSample(sampleTicks)) {
             return;
         }
 
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
-        if (!actionRegistry.hasAction(ACTION_EXPLORE_STEPS)) {
+        WalkActions actions = walkActions();
+        if (actions.steps == null && actions.chunk == null) {
             return;
         }
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(ACTION_EXPLORE_STEPS);
-        if (mapping == null) {
+        Player player = archetypeChunk.getComponent(index, playerType);
+        TransformComponent transform = archetypeChunk.getComponent(index, transformType);
+        if (player == null || transform == null) {
             return;
         }
+        UUID playerId = walk.getPlayerId();
 
         Vector3d pos = transform.getPosition();
         double x = pos.getX();
         double y = pos.getY();
         double z = pos.getZ();
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+
+        if (actions.chunk != null) {
+            int chunkX = (int) Math.floor(x) >> CHUNK_SHIFT;
+            int chunkZ = (int) Math.floor(z) >> CHUNK_SHIFT;
+            String worldName = store.getExternalData().getWorld().getName();
+            // The visited set is only consulted when the player crosses into another chunk
+            if (walk.enterChunk(worldName, chunkX, chunkZ) && visitChunk(playerId, worldName, chunkX, chunkZ)) {
+                expGrants.add(playerId, actions.chunk.getCategoryId(), actions.chunk.getExp(), player);
+            }
+        }
 
-        Map<UUID, ExplorationWalkData> tracker = plugin.getExplorationWalkTracker();
-        ExplorationWalkData data = tracker.computeIfAbsent(playerId, uuid -> new ExplorationWalkData(x, y, z, 0.0));
-
-        if (data.isFirstTick()) {
-            data.setLast(x, y, z);
+        int elapsedTicks = walk.takeTicksSinceSample();
+        if (walk.isFirstSample()) {
+            walk.setLast(x, y, z);
             return;
         }
 
-        double dx = x - data.getLastX();
-        double dy = y - data.getLastY();
-        double dz = z - data.getLastZ();
+        double dx = x - walk.getLastX();
+        double dy = y - walk.getLastY();
+        double dz = z - walk.getLastZ();
         double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
-        data.setLast(x, y, z);
-
-        // Cap per-tick distance to avoid teleports giving huge EXP
-        double maxPerTick = 20.0;
-        if (distance > maxPerTick) {
-            distance = maxPerTick;
+        walk.setLast(x, y, z);
+        if (actions.steps == null) {
+            return;
         }
 
-        data.addDistance(distance);
+        distance = Math.min(distance, MAX_DISTANCE_PER_TICK * Math.max(1, elapsedTicks));
+        walk.addDistance(distance);
 
-        ExperienceService expService = plugin.getExperienceService();
-        while (data.getAccumulatedDistance() >= STEPS_PER_GRANT) {
-            data.addDistance(-STEPS_PER_GRANT);
-            expService.grantExp(playerId, mapping.getCategoryId(), mapping.getExp(), player);
+        while (walk.getAccumulatedDistance() >= STEPS_PER_GRANT) {
+            walk.addDistance(-STEPS_PER_GRANT);
+            expGrants.add(playerId, actions.steps.getCategoryId(), actions.steps.getExp(), player);
         }
     }
 
     /**
-     * Per-player state: last position and accumulated walk distance.
+     * Mappings of explore_steps and discover_new_chunk, looked up again only after the registry changed
      */
-    public static final class ExplorationWalkData {
-        private double lastX;
-        private double lastY;
-        private double lastZ;
-        private double accumulatedDistance;
-        private boolean firstTick = true;
-
-        public ExplorationWalkData(double lastX, double lastY, double lastZ, double accumulatedDistance) {
-            this.lastX = lastX;
-            this.lastY = lastY;
-            this.lastZ = lastZ;
-            this.accumulatedDistance = accumulatedDistance;
-        }
-
-        public boolean isFirstTick() {
-            return firstTick;
+    private WalkActions walkActions() {
+        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
+        long version = actionRegistry.getVersion();
+        WalkActions current = walkActions;
+        if (current == null || current.version != version) {
+            current = new WalkActions(version,
+                actionRegistry.getActionMapping(ACTION_EXPLORE_STEPS),
+                actionRegistry.getActionMapping(ACTION_DISCOVER_NEW_CHUNK));
+            walkActions = current;
         }
+        return current;
+    }
 
-        public void setLast(double x, double y, double z) {
-            this.lastX = x;
-            this.lastY = y;
-            this.lastZ = z;
-            this.firstTick = false;
+    /**
+     * Record the chunk in the player's visited set (under the player's lock; saved with the next snapshot)
+     * @return true if the player had never been in this chunk of this world
+     */
+    private boolean visitChunk(UUID playerId, String worldName, int chunkX, int chunkZ) {
+        LevelSystemDataService dataService = plugin.getDataService();
+        ReentrantLock lock = dataService.lockPlayerData(playerId);
+        try {
+            return dataService.getPlayerData(playerId).visitChunk(worldName, chunkX, chunkZ);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        public double getLastX() { return lastX; }
-        public double getLastY() { return lastY; }
-        public double getLastZ() { return lastZ; }
-
-        public void addDistance(double d) {
-            this.accumulatedDistance += d;
-        }
+    private static final class WalkActions {
+        final long version;
+        @Nullable final ActionRegistryService.ActionMapping steps;
+        @Nullable final ActionRegistryService.ActionMapping chunk;
 
-        public double getAccumulatedDistance() {
-            return accumulatedDistance;
+        WalkActions(long version, @Nullable ActionRegistryService.ActionMapping steps,
+                    @Nullable ActionRegistryService.ActionMapping chunk) {
+            this.version = version;
+            this.steps = steps;
+            this.chunk = chunk;
         }
     }
 }
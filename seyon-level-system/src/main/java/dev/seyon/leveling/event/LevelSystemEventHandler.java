@@ -2,6 +2,7 @@ package dev.seyon.leveling.event;
 
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
@@ -19,6 +20,20 @@ import java.util.UUID;
  */
 public class LevelSystemEventHandler {
 
+    /**
+     * Handle player connect: start loading the player's data in the background
+     */
+    public static void onPlayerConnect(PlayerConnectEvent event, SeyonLevelSystemPlugin plugin) {
+        UUID playerId = event.getPlayerRef().getUuid();
+        try {
+            plugin.getDataService().prefetchPlayerData(playerId);
+        } catch (Exception e) {
+            plugin.getLogger().at(java.util.logging.Level.WARNING)
+                .withCause(e)
+                .log("Failed to start prefetch for: " + playerId);
+        }
+    }
+
     /**
      * Handle player ready event
      */
@@ -28,7 +43,8 @@ public class LevelSystemEventHandler {
         if (playerId == null) return;
 
         try {
-            // Initialize player data
+            // Initialize player data (kept resident until disconnect)
+            plugin.getDataService().pinPlayer(playerId);
             plugin.getDataService().initializePlayerCategories(playerId, plugin.getCategoryService());
 
             // Apply modifiers
@@ -77,10 +93,17 @@ public class LevelSystemEventHandler {
     }
 
     /**
-     * Handle player disconnect: unload data and clean exploration walk tracker
+     * Handle player disconnect: apply queued EXP, unload data and drop held-back notifications
      */
     public static void onPlayerDisconnect(PlayerDisconnectEvent event, SeyonLevelSystemPlugin plugin) {
         UUID playerId = event.getPlayerRef().getUuid();
+        try {
+            plugin.getExpGrantAccumulator().flush(playerId);
+        } catch (Exception e) {
+            plugin.getLogger().at(java.util.logging.Level.WARNING)
+                .withCause(e)
+                .log("Failed to apply queued EXP for: " + playerId);
+        }
         try {
             plugin.getDataService().unloadPlayerData(playerId);
         } catch (Exception e) {
@@ -88,6 +111,6 @@ public class LevelSystemEventHandler {
                 .withCause(e)
                 .log("Failed to unload player data for: " + playerId);
         }
-        plugin.getExplorationWalkTracker().remove(playerId);
+        plugin.getExpNotificationService().removePlayer(playerId);
     }
 }
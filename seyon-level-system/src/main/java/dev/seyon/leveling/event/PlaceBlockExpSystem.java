@@ -6,6 +6,7 @@ import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.component.system.EntityEventSystem;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
@@ -13,7 +14,8 @@ import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
+import dev.seyon.leveling.service.PlacedBlockIndex;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,6 +24,8 @@ import javax.annotation.Nullable;
  * ECS system: on PlaceBlockEvent, grant EXP when a player places a block.
  * Action IDs: "place_&lt;blockKey&gt;" (from ItemStack.getBlockKey()) or "place_&lt;itemId&gt;" (from ItemStack.getItemId()).
  * Add these to actions/farming.json (or other categories) for crop planting, e.g. place_wheat, place_carrot.
+ * Every player placement is recorded in the {@link PlacedBlockIndex}; placing again where a block was
+ * placed recently only gives {@code placed_block_exp_factor} of the EXP.
  */
 public class PlaceBlockExpSystem extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
 
@@ -48,27 +52,27 @@ public class PlaceBlockExpSystem extends EntityEventSystem<EntityStore, PlaceBlo
             return;
         }
 
-        String actionId = null;
+        // Recorded for every block, with or without a place_ action, so break_ EXP can see it
+        PlacedBlockIndex placedBlocks = plugin.getPlacedBlockIndex();
+        boolean replaced = false;
+        if (placedBlocks.isEnabled()) {
+            Vector3i pos = event.getTargetBlock();
+            replaced = placedBlocks.recordPlacement(store.getExternalData().getWorld().getName(), pos.getX(), pos.getY(), pos.getZ());
+        }
+
+        // place_<blockKey>, then place_<itemId>
+        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
+        ActionRegistryService.ActionMapping mapping = null;
         String blockKey = itemInHand.getBlockKey();
-        if (blockKey != null && !blockKey.isEmpty() && !"Empty".equals(blockKey)) {
-            actionId = "place_" + blockKey;
+        if (!"Empty".equals(blockKey)) {
+            mapping = actionRegistry.resolve(ActionRegistryService.ActionKind.PLACE, blockKey);
         }
-        if (actionId == null || !plugin.getActionRegistryService().hasAction(actionId)) {
+        if (mapping == null) {
             String itemId = itemInHand.getItemId();
-            if (itemId != null && !itemId.isEmpty() && !"Empty".equals(itemId)) {
-                actionId = "place_" + itemId;
+            if (!"Empty".equals(itemId)) {
+                mapping = actionRegistry.resolve(ActionRegistryService.ActionKind.PLACE, itemId);
             }
         }
-        if (actionId == null) {
-            return;
-        }
-
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
-        if (!actionRegistry.hasAction(actionId)) {
-            return;
-        }
-
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(actionId);
         if (mapping == null) {
             return;
         }
@@ -78,8 +82,9 @@ public class PlaceBlockExpSystem extends EntityEventSystem<EntityStore, PlaceBlo
             return;
         }
 
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), mapping.getExp(), player);
+        double exp = replaced ? mapping.getExp() * placedBlocks.getExpFactor() : mapping.getExp();
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        expGrants.add(playerId, mapping.getCategoryId(), exp, player);
     }
 
     @Nullable
@@ -12,7 +12,7 @@ import com.hypixel.hytale.server.core.event.events.ecs.UseBlockEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import dev.seyon.leveling.SeyonLevelSystemPlugin;
 import dev.seyon.leveling.service.ActionRegistryService;
-import dev.seyon.leveling.service.ExperienceService;
+import dev.seyon.leveling.service.ExpGrantAccumulator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -24,8 +24,6 @@ import javax.annotation.Nullable;
  */
 public class UseBlockHarvestExpSystem extends EntityEventSystem<EntityStore, UseBlockEvent.Post> {
 
-    private static final String ACTION_HARVEST_CROP = "harvest_crop";
-
     private final SeyonLevelSystemPlugin plugin;
 
     public UseBlockHarvestExpSystem(SeyonLevelSystemPlugin plugin) {
@@ -49,13 +47,9 @@ public class UseBlockHarvestExpSystem extends EntityEventSystem<EntityStore, Use
             return;
         }
 
-        ActionRegistryService actionRegistry = plugin.getActionRegistryService();
-        String actionId = actionRegistry.hasAction("harvest_" + blockId) ? "harvest_" + blockId : ACTION_HARVEST_CROP;
-        if (!actionRegistry.hasAction(actionId)) {
-            return;
-        }
-
-        ActionRegistryService.ActionMapping mapping = actionRegistry.getActionMapping(actionId);
+        // harvest_<blockId>, then harvest_crop (resolved once per block type)
+        ActionRegistryService.ActionMapping mapping = plugin.getActionRegistryService()
+            .resolve(ActionRegistryService.ActionKind.HARVEST, blockId);
         if (mapping == null) {
             return;
         }
@@ -65,8 +59,8 @@ public class UseBlockHarvestExpSystem extends EntityEventSystem<EntityStore, Use
             return;
         }
 
-        ExperienceService expService = plugin.getExperienceService();
-        expService.grantExp(playerId, mapping.getCategoryId(), mapping.getExp(), player);
+        ExpGrantAccumulator expGrants = plugin.getExpGrantAccumulator();
+        expGrants.add(playerId, mapping.getCategoryId(), mapping.getExp(), player);
     }
 
     @Nullable
@@ -13,6 +13,7 @@ import dev.seyon.leveling.config.LevelSystemCategory;
 import dev.seyon.leveling.config.SkillConfig;
 import dev.seyon.leveling.model.CategoryProgress;
 import dev.seyon.leveling.model.PlayerLevelSystemData;
+import dev.seyon.leveling.service.CompiledCategory;
 import dev.seyon.leveling.service.LevelEffectsDisplayHelper;
 import au.ellie.hyui.builders.PageBuilder;
 
@@ -94,14 +95,15 @@ public class LevelSystemHyUIGui {
         Set<String> renderedCategories = new HashSet<>();
         int categoryCount = 0;
         
-        for (LevelSystemCategory category : SeyonLevelSystemPlugin.getInstance().getCategoryService().getAllCategories()) {
+        for (CompiledCategory compiled : SeyonLevelSystemPlugin.getInstance().getCategoryService().getAllCompiledCategories()) {
+            LevelSystemCategory category = compiled.getCategory();
             String categoryId = category.getId();
             String sanitizedId = sanitizeId(categoryId);
             CategoryProgress progress = data.getCategoryProgress().get(categoryId);
             
-            // Initialize progress if null (for newly added categories)
+            // Show level-1 progress for newly added categories (display only; the data is not touched off the player's lock)
             if (progress == null) {
-                progress = data.getOrCreateCategoryProgress(categoryId);
+                progress = new CategoryProgress(categoryId);
                 progress.setExpForNextLevel(category.getExpCurve().calculateExpForLevel(1));
             }
             
@@ -142,7 +144,7 @@ public class LevelSystemHyUIGui {
             html.append("<p></p>");
             
             // Current level effects
-            Map<String, Double> currentEffects = LevelEffectsDisplayHelper.getCumulativeLevelBonusesUpTo(category, level);
+            Map<String, Double> currentEffects = LevelEffectsDisplayHelper.getCumulativeLevelBonusesUpTo(compiled, level);
             String currentText = LevelEffectsDisplayHelper.formatModifiersForDisplay(currentEffects);
             html.append("<p>Aktuell (Lv.").append(level).append("):</p>");
             html.append("<p>").append(escapeHtml(currentText)).append("</p>");
@@ -150,13 +152,13 @@ public class LevelSystemHyUIGui {
             
             // Next level effects
             if (!isMaxLevel) {
-                Map<String, Double> nextEffects = LevelEffectsDisplayHelper.getLevelBonusAtLevel(category, level + 1);
+                Map<String, Double> nextEffects = LevelEffectsDisplayHelper.getLevelBonusAtLevel(compiled, level + 1);
                 String nextText = LevelEffectsDisplayHelper.formatModifiersForDisplay(nextEffects);
                 html.append("<p>Naechstes (Lv.").append(level + 1).append("):</p>");
                 html.append("<p>").append(escapeHtml(nextText)).append("</p>");
                 
                 // Optional: Quest hint
-                if (category.hasQuestAtLevel(level + 1)) {
+                if (compiled.hasQuestAtLevel(level + 1)) {
                     html.append("<p>! Quest bei Level ").append(level + 1).append("</p>");
                 }
             } else {
@@ -24,6 +24,18 @@ public class CategoryProgress {
         this.categoryId = categoryId;
     }
 
+    /**
+     * Copy constructor (used for save snapshots)
+     */
+    public CategoryProgress(CategoryProgress other) {
+        this.categoryId = other.categoryId;
+        this.currentLevel = other.currentLevel;
+        this.currentExp = other.currentExp;
+        this.expForNextLevel = other.expForNextLevel;
+        this.canGainExp = other.canGainExp;
+        this.pendingLevelUps = other.pendingLevelUps;
+    }
+
     // Getters and Setters
     public String getCategoryId() {
         return categoryId;
@@ -0,0 +1,36 @@
+package dev.seyon.leveling.model;
+
+import java.util.UUID;
+
+/**
+ * One row of a "top players by level" query for a category
+ */
+public class LeaderboardEntry {
+    private final UUID playerId;
+    private final String categoryId;
+    private final int level;
+    private final double exp;
+
+    public LeaderboardEntry(UUID playerId, String categoryId, int level, double exp) {
+        this.playerId = playerId;
+        this.categoryId = categoryId;
+        this.level = level;
+        this.exp = exp;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public double getExp() {
+        return exp;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.seyon.leveling.model;
+
+/**
+ * Kind of change made to a player's data in one category. Used by the persistence layer to decide
+ * which sections of the category have to be written (e.g. a journal record for an EXP grant only
+ * carries the category progress).
+ */
+public enum PlayerDataMutation {
+    /** EXP gained: category progress changed */
+    EXP(true, false, false, false),
+    /** Level-up processed: progress and skill points changed */
+    LEVEL_UP(true, true, false, false),
+    /** Skill activated, upgraded or reset: skill points and skills changed */
+    SKILL(false, true, true, false),
+    /** Milestone quest completed: progress (can gain EXP) and completed quests changed */
+    QUEST(true, false, false, true),
+    /** Admin change (e.g. setlevel): everything in the category may have changed */
+    ADMIN(true, true, true, true);
+
+    private final boolean progress;
+    private final boolean skillPoints;
+    private final boolean skills;
+    private final boolean quests;
+
+    PlayerDataMutation(boolean progress, boolean skillPoints, boolean skills, boolean quests) {
+        this.progress = progress;
+        this.skillPoints = skillPoints;
+        this.skills = skills;
+        this.quests = quests;
+    }
+
+    public boolean touchesProgress() {
+        return progress;
+    }
+
+    public boolean touchesSkillPoints() {
+        return skillPoints;
+    }
+
+    public boolean touchesSkills() {
+        return skills;
+    }
+
+    public boolean touchesQuests() {
+        return quests;
+    }
+}
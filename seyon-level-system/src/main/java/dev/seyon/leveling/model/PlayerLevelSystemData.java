@@ -7,17 +7,28 @@ import java.util.*;
  * This is stored per player and persisted
  */
 public class PlayerLevelSystemData {
+    /** Worlds whose visited chunks are kept; entering another drops the least recently visited */
+    public static final int MAX_VISITED_WORLDS = 16;
+
     private UUID playerId;
     private Map<String, CategoryProgress> categoryProgress;
     private Map<String, Integer> availableSkillPoints;
     private Map<String, Map<String, Integer>> activeSkills; // categoryId -> (skillId -> points)
     private Map<String, Set<Integer>> completedQuests; // categoryId -> Set of completed quest levels
+    private long journalSequence; // last journal record contained in this snapshot
+    private Map<String, VisitedChunkSet> visitedChunks; // world name -> chunks entered (discover_new_chunk), least recently visited first
+    // Unsaved changes (not persisted): categories changed since the last save, or everything
+    private transient Set<String> dirtyCategories = new HashSet<>();
+    private transient boolean fullyDirty;
+    private transient boolean visitedChunksDirty;
+    private transient String lastVisitedWorld;
 
     public PlayerLevelSystemData() {
         this.categoryProgress = new HashMap<>();
         this.availableSkillPoints = new HashMap<>();
         this.activeSkills = new HashMap<>();
         this.completedQuests = new HashMap<>();
+        this.visitedChunks = new LinkedHashMap<>();
     }
 
     public PlayerLevelSystemData(UUID playerId) {
@@ -25,6 +36,62 @@ public class PlayerLevelSystemData {
         this.playerId = playerId;
     }
 
+    /**
+     * Deep copy, so a snapshot can be serialized while the live data keeps changing
+     */
+    public PlayerLevelSystemData copy() {
+        PlayerLevelSystemData copy = new PlayerLevelSystemData(playerId);
+        for (Map.Entry<String, CategoryProgress> entry : categoryProgress.entrySet()) {
+            copy.categoryProgress.put(entry.getKey(), new CategoryProgress(entry.getValue()));
+        }
+        copy.availableSkillPoints.putAll(availableSkillPoints);
+        for (Map.Entry<String, Map<String, Integer>> entry : activeSkills.entrySet()) {
+            copy.activeSkills.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        for (Map.Entry<String, Set<Integer>> entry : completedQuests.entrySet()) {
+            copy.completedQuests.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        for (Map.Entry<String, VisitedChunkSet> entry : visitedChunks().entrySet()) {
+            copy.visitedChunks.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.journalSequence = journalSequence;
+        return copy;
+    }
+
+    /**
+     * Copy of only the given categories (and the visited chunks if requested) for a delta save; the
+     * other sections of the copy are empty
+     */
+    public PlayerLevelSystemData copy(Set<String> categoryIds, boolean withVisitedChunks) {
+        PlayerLevelSystemData copy = new PlayerLevelSystemData(playerId);
+        for (String categoryId : categoryIds) {
+            CategoryProgress progress = categoryProgress.get(categoryId);
+            if (progress != null) {
+                copy.categoryProgress.put(categoryId, new CategoryProgress(progress));
+            }
+            Integer points = availableSkillPoints.get(categoryId);
+            if (points != null) {
+                copy.availableSkillPoints.put(categoryId, points);
+            }
+            Map<String, Integer> skills = activeSkills.get(categoryId);
+            if (skills != null) {
+                copy.activeSkills.put(categoryId, new HashMap<>(skills));
+            }
+            Set<Integer> quests = completedQuests.get(categoryId);
+            if (quests != null) {
+                copy.completedQuests.put(categoryId, new HashSet<>(quests));
+            }
+        }
+        if (withVisitedChunks) {
+            for (Map.Entry<String, VisitedChunkSet> entry : visitedChunks().entrySet()) {
+                copy.visitedChunks.put(entry.getKey(), entry.getValue().copy());
+            }
+            copy.markVisitedChunksDirty();
+        }
+        copy.journalSequence = journalSequence;
+        return copy;
+    }
+
     // Getters and Setters
     public UUID getPlayerId() {
         return playerId;
@@ -66,6 +133,90 @@ public class PlayerLevelSystemData {
         this.completedQuests = completedQuests;
     }
 
+    /**
+     * Visited chunks per world name, least recently visited first (not covered by the journal; saved
+     * with the next snapshot)
+     */
+    public Map<String, VisitedChunkSet> getVisitedChunks() {
+        return visitedChunks();
+    }
+
+    public void setVisitedChunks(Map<String, VisitedChunkSet> visitedChunks) {
+        this.visitedChunks = visitedChunks;
+    }
+
+    private Map<String, VisitedChunkSet> visitedChunks() {
+        // Missing in files written before chunk discovery existed
+        if (visitedChunks == null) {
+            visitedChunks = new LinkedHashMap<>();
+        }
+        return visitedChunks;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    // Dirty tracking (caller holds the player's lock)
+
+    /**
+     * Remember that a category changed since the last save
+     */
+    public void markCategoryDirty(String categoryId) {
+        dirtyCategories().add(categoryId);
+    }
+
+    /**
+     * Remember that the whole player must be written on the next save
+     */
+    public void markAllDirty() {
+        fullyDirty = true;
+    }
+
+    /**
+     * Remember that visited chunks changed (only the per-player part has to be written)
+     */
+    public void markVisitedChunksDirty() {
+        visitedChunksDirty = true;
+    }
+
+    public boolean isVisitedChunksDirty() {
+        return visitedChunksDirty;
+    }
+
+    public boolean isDirty() {
+        return fullyDirty || visitedChunksDirty || !dirtyCategories().isEmpty();
+    }
+
+    public boolean isFullyDirty() {
+        return fullyDirty;
+    }
+
+    /**
+     * Categories changed since the last save (meaningless if {@link #isFullyDirty()})
+     */
+    public Set<String> getDirtyCategories() {
+        return dirtyCategories();
+    }
+
+    public void clearDirty() {
+        dirtyCategories().clear();
+        fullyDirty = false;
+        visitedChunksDirty = false;
+    }
+
+    private Set<String> dirtyCategories() {
+        // Transient fields are not restored by every deserializer
+        if (dirtyCategories == null) {
+            dirtyCategories = new HashSet<>();
+        }
+        return dirtyCategories;
+    }
+
     // Helper methods
     
     /**
@@ -124,6 +275,37 @@ public class PlayerLevelSystemData {
         }
     }
 
+    /**
+     * Record that the player entered a chunk. Only the {@value #MAX_VISITED_WORLDS} most recently visited
+     * worlds are kept, so short-lived instance worlds do not pile up.
+     * @return true if the chunk was not visited before in this world
+     */
+    public boolean visitChunk(String worldName, int chunkX, int chunkZ) {
+        Map<String, VisitedChunkSet> worlds = visitedChunks();
+        VisitedChunkSet chunks;
+        if (worldName.equals(lastVisitedWorld)) {
+            chunks = worlds.computeIfAbsent(worldName, k -> new VisitedChunkSet());
+        } else {
+            // Move the world to the recent end
+            chunks = worlds.remove(worldName);
+            if (chunks == null) {
+                chunks = new VisitedChunkSet();
+                Iterator<String> eldest = worlds.keySet().iterator();
+                while (worlds.size() >= MAX_VISITED_WORLDS && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            worlds.put(worldName, chunks);
+            lastVisitedWorld = worldName;
+        }
+        if (!chunks.add(chunkX, chunkZ)) {
+            return false;
+        }
+        markVisitedChunksDirty();
+        return true;
+    }
+
     /**
      * Check if a quest is completed
      */
@@ -142,13 +324,16 @@ public class PlayerLevelSystemData {
 
     /**
      * Initialize category with default values
+     * @return true if the category was new
      */
-    public void initializeCategory(String categoryId) {
+    public boolean initializeCategory(String categoryId) {
         if (!categoryProgress.containsKey(categoryId)) {
             categoryProgress.put(categoryId, new CategoryProgress(categoryId));
             availableSkillPoints.put(categoryId, 0);
             activeSkills.put(categoryId, new HashMap<>());
             completedQuests.put(categoryId, new HashSet<>());
+            return true;
         }
+        return false;
     }
 }
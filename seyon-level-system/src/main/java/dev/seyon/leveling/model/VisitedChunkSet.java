@@ -0,0 +1,321 @@
+package dev.seyon.leveling.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Compressed set of visited chunks in one world (roaring-bitmap style).
+ * <p>
+ * Chunks are grouped into tiles of 256 x 256 chunks. Each tile that was entered holds either a
+ * sorted array of its visited chunks (2 bytes each, up to {@value #ARRAY_MAX}) or a 8 KiB bitmap,
+ * whichever is smaller, so a chunk costs at most 2 bytes (4 while an array has grown but is not yet
+ * full). Lookups are a binary search over the few tiles (the last tile is remembered) plus one array
+ * or bitmap probe.
+ * <p>
+ * A set holds at most {@value #MAX_CHUNKS} chunks in at most {@value #MAX_TILES} tiles (an area of
+ * 512 x 512 chunks when explored densely), which bounds it to about 1 MiB per world. Once full, new
+ * chunks are not recorded and {@link #add} reports them as already visited, so they give no
+ * discovery EXP.
+ * <p>
+ * Not thread-safe: change it under the player's lock. Stored in JSON as a Base64 string.
+ */
+@JsonAdapter(VisitedChunkSet.Adapter.class)
+public final class VisitedChunkSet {
+
+    /** Largest array container; beyond this a bitmap (1024 longs) is smaller */
+    static final int ARRAY_MAX = 4096;
+    static final int MAX_CHUNKS = 262_144;
+    static final int MAX_TILES = 1024;
+    private static final int FORMAT_VERSION = 1;
+
+    private int[] tileKeys = new int[0];
+    private Container[] tiles = new Container[0];
+    private int tileCount;
+    private int size;
+    private int lastTile = -1;
+
+    public VisitedChunkSet() {}
+
+    /**
+     * @return true if the chunk was visited before
+     */
+    public boolean contains(int chunkX, int chunkZ) {
+        int index = findTile(tileKey(chunkX, chunkZ));
+        return index >= 0 && tiles[index].contains(lowBits(chunkX, chunkZ));
+    }
+
+    /**
+     * Record a visit
+     * @return true if the chunk was not visited before (false for every new chunk once the set is full)
+     */
+    public boolean add(int chunkX, int chunkZ) {
+        if (size >= MAX_CHUNKS) {
+            return false;
+        }
+        int key = tileKey(chunkX, chunkZ);
+        int index = findTile(key);
+        if (index < 0) {
+            if (tileCount >= MAX_TILES) {
+                return false;
+            }
+            index = -index - 1;
+            insertTile(index, key);
+        }
+        if (tiles[index].add(lowBits(chunkX, chunkZ))) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Number of visited chunks
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Deep copy, so a snapshot can be serialized while the live set keeps changing
+     */
+    public VisitedChunkSet copy() {
+        VisitedChunkSet copy = new VisitedChunkSet();
+        copy.tileKeys = Arrays.copyOf(tileKeys, tileCount);
+        copy.tiles = new Container[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            copy.tiles[i] = tiles[i].copy();
+        }
+        copy.tileCount = tileCount;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Encode as: version:u8 tiles:int, then per tile key:int cardinality:int and either the sorted
+     * 16-bit entries (cardinality &lt;= {@value #ARRAY_MAX}) or 1024 bitmap words.
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + size * 2);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(tileCount);
+            for (int i = 0; i < tileCount; i++) {
+                out.writeInt(tileKeys[i]);
+                tiles[i].write(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream does not throw
+        }
+    }
+
+    public static VisitedChunkSet fromBytes(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported visited chunk format version " + version);
+        }
+        VisitedChunkSet set = new VisitedChunkSet();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt visited chunk set");
+        }
+        set.tileKeys = new int[count];
+        set.tiles = new Container[count];
+        for (int i = 0; i < count; i++) {
+            set.tileKeys[i] = in.readInt();
+            if (i > 0 && set.tileKeys[i] <= set.tileKeys[i - 1]) {
+                throw new IOException("Corrupt visited chunk set");
+            }
+            set.tiles[i] = Container.read(in);
+            set.size += set.tiles[i].cardinality;
+        }
+        set.tileCount = count;
+        return set;
+    }
+
+    /** Tile: chunk coordinates divided by 256, packed as 16 + 16 bits */
+    private static int tileKey(int chunkX, int chunkZ) {
+        return ((chunkX >> 8) << 16) | ((chunkZ >> 8) & 0xFFFF);
+    }
+
+    /** Position inside the tile: low 8 bits of each coordinate */
+    private static char lowBits(int chunkX, int chunkZ) {
+        return (char) (((chunkX & 0xFF) << 8) | (chunkZ & 0xFF));
+    }
+
+    private int findTile(int key) {
+        int last = lastTile;
+        if (last >= 0 && last < tileCount && tileKeys[last] == key) {
+            return last;
+        }
+        int index = Arrays.binarySearch(tileKeys, 0, tileCount, key);
+        if (index >= 0) {
+            lastTile = index;
+        }
+        return index;
+    }
+
+    private void insertTile(int index, int key) {
+        if (tileCount == tileKeys.length) {
+            int capacity = Math.max(4, tileCount * 2);
+            tileKeys = Arrays.copyOf(tileKeys, capacity);
+            tiles = Arrays.copyOf(tiles, capacity);
+        }
+        System.arraycopy(tileKeys, index, tileKeys, index + 1, tileCount - index);
+        System.arraycopy(tiles, index, tiles, index + 1, tileCount - index);
+        tileKeys[index] = key;
+        tiles[index] = new Container();
+        tileCount++;
+        lastTile = index;
+    }
+
+    /**
+     * Visited chunks of one tile: sorted array while small, bitmap once it has more than
+     * {@value #ARRAY_MAX} entries
+     */
+    private static final class Container {
+        private char[] array = new char[4];
+        private long[] bitmap;
+        private int cardinality;
+
+        boolean contains(char value) {
+            if (bitmap != null) {
+                return (bitmap[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, cardinality, value) >= 0;
+        }
+
+        boolean add(char value) {
+            if (bitmap != null) {
+                long before = bitmap[value >>> 6];
+                bitmap[value >>> 6] = before | (1L << value);
+                if (before != bitmap[value >>> 6]) {
+                    cardinality++;
+                    return true;
+                }
+                return false;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(value);
+            }
+            index = -index - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_MAX, array.length * 2));
+            }
+            System.arraycopy(array, index, array, index + 1, cardinality - index);
+            array[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        private void toBitmap() {
+            bitmap = new long[1024];
+            for (int i = 0; i < cardinality; i++) {
+                char value = array[i];
+                bitmap[value >>> 6] |= 1L << value;
+            }
+            array = null;
+        }
+
+        Container copy() {
+            Container copy = new Container();
+            copy.cardinality = cardinality;
+            copy.array = array != null ? Arrays.copyOf(array, Math.max(4, cardinality)) : null;
+            copy.bitmap = bitmap != null ? bitmap.clone() : null;
+            return copy;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(cardinality);
+            if (bitmap != null) {
+                for (long word : bitmap) {
+                    out.writeLong(word);
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    out.writeChar(array[i]);
+                }
+            }
+        }
+
+        static Container read(DataInputStream in) throws IOException {
+            Container container = new Container();
+            int cardinality = in.readInt();
+            if (cardinality < 0 || cardinality > 65536) {
+                throw new IOException("Corrupt visited chunk set");
+            }
+            if (cardinality > ARRAY_MAX) {
+                container.array = null;
+                container.bitmap = new long[1024];
+                int bits = 0;
+                for (int i = 0; i < 1024; i++) {
+                    container.bitmap[i] = in.readLong();
+                    bits += Long.bitCount(container.bitmap[i]);
+                }
+                if (bits != cardinality) {
+                    throw new IOException("Corrupt visited chunk set");
+                }
+            } else {
+                container.array = new char[Math.max(4, cardinality)];
+                for (int i = 0; i < cardinality; i++) {
+                    container.array[i] = in.readChar();
+                    if (i > 0 && container.array[i] <= container.array[i - 1]) {
+                        throw new IOException("Corrupt visited chunk set");
+                    }
+                }
+            }
+            container.cardinality = cardinality;
+            return container;
+        }
+    }
+
+    /**
+     * Gson: the binary form as a Base64 string
+     */
+    public static final class Adapter extends TypeAdapter<VisitedChunkSet> {
+        @Override
+        public void write(JsonWriter out, VisitedChunkSet value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(Base64.getEncoder().encodeToString(value.toBytes()));
+        }
+
+        @Override
+        public VisitedChunkSet read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            try {
+                return fromBytes(Base64.getDecoder().decode(in.nextString()));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid visited chunk set", e);
+            }
+        }
+    }
+}
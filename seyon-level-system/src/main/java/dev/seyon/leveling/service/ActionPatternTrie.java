@@ -0,0 +1,116 @@
+package dev.seyon.leveling.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wildcard action IDs ("break_Ore_*", "harvest_Plant_Crop_*_Block") indexed by their literal prefix.
+ * A lookup walks the ID once down the trie and only tests the patterns whose prefix it passes.
+ * <p>
+ * The most specific pattern wins: longest literal prefix first, then most literal characters,
+ * then the one added first. Filled once per registry snapshot, then only read.
+ */
+final class ActionPatternTrie<T> {
+
+    static final char WILDCARD = '*';
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    static boolean isPattern(String actionId) {
+        return actionId != null && actionId.indexOf(WILDCARD) >= 0;
+    }
+
+    void add(String pattern, T value) {
+        Pattern<T> compiled = new Pattern<>(pattern, value, size++);
+        Node<T> node = root;
+        for (int i = 0; i < compiled.segments[0].length(); i++) {
+            node = node.children.computeIfAbsent(pattern.charAt(i), c -> new Node<>());
+        }
+        node.patterns.add(compiled);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of the most specific matching pattern, or null
+     */
+    T match(String id) {
+        // Nodes along the ID, deepest (longest literal prefix) last
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        for (int i = 0; i < id.length(); i++) {
+            node = node.children.get(id.charAt(i));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Pattern<T> best = null;
+            for (Pattern<T> pattern : path.get(depth).patterns) {
+                if (pattern.matches(id) && (best == null || pattern.isMoreSpecificThan(best))) {
+                    best = pattern;
+                }
+            }
+            if (best != null) {
+                return best.value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Node<T> {
+        final Map<Character, Node<T>> children = new HashMap<>();
+        final List<Pattern<T>> patterns = new ArrayList<>(1);
+    }
+
+    private static final class Pattern<T> {
+        /** Literal parts between wildcards; the first is the trie prefix, the last must end the ID */
+        final String[] segments;
+        final int literalLength;
+        final int order;
+        final T value;
+
+        Pattern(String pattern, T value, int order) {
+            this.segments = pattern.split("\\*", -1);
+            int literals = 0;
+            for (String segment : segments) {
+                literals += segment.length();
+            }
+            this.literalLength = literals;
+            this.order = order;
+            this.value = value;
+        }
+
+        boolean matches(String id) {
+            String first = segments[0];
+            String last = segments[segments.length - 1];
+            if (id.length() < literalLength || !id.startsWith(first) || !id.endsWith(last)) {
+                return false;
+            }
+            int from = first.length();
+            int end = id.length() - last.length();
+            for (int i = 1; i < segments.length - 1; i++) {
+                int at = id.indexOf(segments[i], from);
+                if (at < 0 || at + segments[i].length() > end) {
+                    return false;
+                }
+                from = at + segments[i].length();
+            }
+            return from <= end;
+        }
+
+        boolean isMoreSpecificThan(Pattern<T> other) {
+            if (literalLength != other.literalLength) {
+                return literalLength > other.literalLength;
+            }
+            return order < other.order;
+        }
+    }
+}
@@ -3,37 +3,60 @@ package dev.seyon.leveling.service;
 import com.hypixel.hytale.logger.HytaleLogger;
 import dev.seyon.leveling.config.ActionConfig;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
  * Service for managing action-to-EXP mappings
+ * <p>
+ * Block, item and recipe events resolve through {@link #resolve(ActionKind, String)}: a per-kind
+ * index keyed by the engine ID (block type ID, item ID, recipe ID) that remembers the resolved
+ * mapping, including case and generic fallbacks, and IDs without a mapping. Each ID pays for
+ * building action IDs once; afterwards an event costs a single map lookup.
+ * <p>
+ * The registry is an immutable snapshot behind one volatile reference. Loading and registering
+ * build a new snapshot and swap it in, so world threads read without locking and never see a
+ * half-loaded registry during {@code /seyon-level reload}.
+ * <p>
+ * Action IDs may contain {@code *} wildcards (e.g. {@code break_Ore_*}) so blocks added by other
+ * mods earn EXP without listing them; exact action IDs take precedence over patterns.
  */
 public class ActionRegistryService {
 
+    /** Marks engine IDs that resolved to no action (negative cache) */
+    private static final ActionMapping NO_ACTION = new ActionMapping("", 0, 1.0);
+
     private final HytaleLogger logger;
-    private final Map<String, ActionMapping> actionMap;
+    private volatile Snapshot snapshot = new Snapshot(new LinkedHashMap<>(), 0);
+    /** Version of the last published snapshot (guarded by this) */
+    private long version;
 
     public ActionRegistryService(HytaleLogger logger) {
         this.logger = logger;
-        this.actionMap = new HashMap<>();
     }
 
     /**
      * Load actions from config service
      */
     public void loadActions(LevelSystemConfigService configService) {
-        actionMap.clear();
+        Map<String, ActionMapping> actions = new LinkedHashMap<>();
         
         for (ActionConfig actionConfig : configService.getActionConfigs()) {
             String category = actionConfig.getCategory();
             for (ActionConfig.ActionMapping mapping : actionConfig.getActions()) {
-                registerAction(mapping.getActionId(), category, mapping.getExp(), mapping.getDifficultyFactor());
+                putAction(actions, mapping.getActionId(), category, mapping.getExp(), mapping.getDifficultyFactor());
             }
         }
         
-        logger.at(Level.INFO).log("Loaded " + actionMap.size() + " action mappings");
+        // Publish all at once: readers see the old or the new actions, never a partial set
+        synchronized (this) {
+            snapshot = new Snapshot(actions, ++version);
+        }
+        logger.at(Level.INFO).log("Loaded " + actions.size() + " action mappings");
     }
 
     /**
@@ -47,34 +70,139 @@ public class ActionRegistryService {
      * Register an action with EXP reward and difficulty factor.
      */
     public void registerAction(String actionId, String categoryId, double exp, double difficultyFactor) {
+        synchronized (this) {
+            Map<String, ActionMapping> actions = new LinkedHashMap<>(snapshot.actions);
+            if (putAction(actions, actionId, categoryId, exp, difficultyFactor)) {
+                snapshot = new Snapshot(actions, ++version);
+            }
+        }
+    }
+
+    private boolean putAction(Map<String, ActionMapping> actions, String actionId, String categoryId,
+                              double exp, double difficultyFactor) {
         if (actionId == null || categoryId == null) {
             logger.at(Level.WARNING).log("Attempted to register invalid action");
-            return;
+            return false;
         }
         double factor = difficultyFactor <= 0 ? 1.0 : difficultyFactor;
-        actionMap.put(actionId, new ActionMapping(categoryId, exp, factor));
+        actions.put(actionId, new ActionMapping(categoryId, exp, factor));
         logger.at(Level.FINE).log("Registered action: " + actionId + " -> " + categoryId + " (" + exp + " EXP, difficulty=" + factor + ")");
+        return true;
     }
 
     /**
      * Get action mapping
      */
     public ActionMapping getActionMapping(String actionId) {
-        return actionMap.get(actionId);
+        return snapshot.actions.get(actionId);
+    }
+
+    /**
+     * Resolve the action for a block, item, recipe or kill event by the engine's ID
+     * (e.g. BREAK + "Rock_Stone" tries break_Rock_Stone, break_rock_stone, then patterns such as break_Rock_*).
+     *
+     * @return the mapping, or null if this ID gives no EXP
+     */
+    public ActionMapping resolve(ActionKind kind, String engineId) {
+        if (engineId == null || engineId.isEmpty()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        Map<String, ActionMapping> index = current.resolved.get(kind);
+        ActionMapping mapping = index.get(engineId);
+        if (mapping == null) {
+            mapping = current.lookup(kind, engineId);
+            index.put(engineId, mapping != null ? mapping : NO_ACTION);
+        }
+        return mapping != NO_ACTION ? mapping : null;
     }
 
     /**
      * Check if action is registered
      */
     public boolean hasAction(String actionId) {
-        return actionMap.containsKey(actionId);
+        return snapshot.actions.containsKey(actionId);
+    }
+
+    /**
+     * Version of the current actions, changed by every load or register. Callers that cache a
+     * resolved mapping compare it to know when to look the mapping up again.
+     */
+    public long getVersion() {
+        return snapshot.version;
     }
 
     /**
-     * Get all registered action IDs
+     * Get all registered action IDs (unmodifiable)
      */
     public java.util.Set<String> getRegisteredActions() {
-        return actionMap.keySet();
+        return snapshot.actions.keySet();
+    }
+
+    /**
+     * Immutable actions plus the indexes derived from them, replaced as a whole on load or register.
+     * The resolved-ID memo belongs to the snapshot, so a swap also drops every stale entry.
+     */
+    private static final class Snapshot {
+        final Map<String, ActionMapping> actions;
+        final long version;
+        final ActionPatternTrie<ActionMapping> patterns = new ActionPatternTrie<>();
+        final Map<ActionKind, Map<String, ActionMapping>> resolved = new EnumMap<>(ActionKind.class);
+
+        Snapshot(Map<String, ActionMapping> actions, long version) {
+            this.actions = Collections.unmodifiableMap(actions);
+            this.version = version;
+            for (Map.Entry<String, ActionMapping> entry : actions.entrySet()) {
+                if (ActionPatternTrie.isPattern(entry.getKey())) {
+                    patterns.add(entry.getKey(), entry.getValue());
+                }
+            }
+            for (ActionKind kind : ActionKind.values()) {
+                resolved.put(kind, new ConcurrentHashMap<>());
+            }
+        }
+
+        ActionMapping lookup(ActionKind kind, String engineId) {
+            String actionId = kind.prefix + engineId;
+            String lowerCaseId = kind.caseInsensitive ? kind.prefix + engineId.toLowerCase() : null;
+            ActionMapping mapping = actions.get(actionId);
+            if (mapping == null && lowerCaseId != null) {
+                mapping = actions.get(lowerCaseId);
+            }
+            if (mapping == null && patterns.size() > 0) {
+                mapping = patterns.match(actionId);
+                if (mapping == null && lowerCaseId != null) {
+                    mapping = patterns.match(lowerCaseId);
+                }
+            }
+            if (mapping == null && kind.fallbackActionId != null) {
+                mapping = actions.get(kind.fallbackActionId);
+            }
+            return mapping;
+        }
+    }
+
+    /**
+     * Event kinds resolved by engine ID: action ID prefix, lowercase retry and generic fallback action
+     */
+    public enum ActionKind {
+        BREAK("break_", true, null),
+        PLACE("place_", false, null),
+        HARVEST("harvest_", false, "harvest_crop"),
+        CRAFT("craft_", false, "craft_item"),
+        /** Engine ID: the victim's NPC role */
+        KILL_MELEE("kill_melee_", true, "kill_enemy_melee"),
+        KILL_RANGED("kill_ranged_", true, "kill_enemy_ranged");
+
+        private final String prefix;
+        private final boolean caseInsensitive;
+        private final String fallbackActionId;
+
+        ActionKind(String prefix, boolean caseInsensitive, String fallbackActionId) {
+            this.prefix = prefix;
+            this.caseInsensitive = caseInsensitive;
+            this.fallbackActionId = fallbackActionId;
+        }
     }
 
     /**
@@ -99,7 +227,7 @@ public class ActionRegistryService {
             return exp;
         }
 
-        /** EXP multiplier for harder blocks (e.g. special trees). */
+        /** EXP multiplier for harder blocks (e.g. special trees) or stronger enemies. */
         public double getDifficultyFactor() {
             return difficultyFactor;
         }
@@ -0,0 +1,275 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Crash-safe file writes: content goes to a sibling temp file which is fsynced and then atomically
+ * moved over the target, so a crash never leaves a truncated or half-written file behind.
+ * <p>
+ * With group commit enabled, the move is deferred: temp files are collected for one fsync window
+ * and a background thread fsyncs all of them, moves them into place and fsyncs each directory once.
+ * Many players' durability barriers therefore share one syscall window instead of one fsync per write.
+ * Until the window commits, readers see the previous version; {@link #commitPending(Path)} forces
+ * a single pending write (used before loading the file again). Both commit paths run under one lock,
+ * so an older temp file is never moved over a newer one. The future returned by {@link #write} tells
+ * the caller whether the write became durable, also for deferred commits.
+ */
+public class AtomicFileWriter {
+
+    /** Suffix of in-flight temp files; leftovers from a crash are removed by {@link #cleanupTempFiles(Path)}. */
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    private final HytaleLogger logger;
+    private final boolean groupCommit;
+    /** Generation of each write; also names its temp file */
+    private final AtomicLong tempCounter = new AtomicLong();
+    /** target -> latest write waiting for the next commit window */
+    private final Map<Path, PendingWrite> pending = new LinkedHashMap<>();
+    /** Held while moving pending writes into place (commit window or single commit) */
+    private final Object commitLock = new Object();
+    private final ScheduledExecutorService syncer;
+
+    /**
+     * @param groupCommit    fsync and move in batches on a background thread
+     * @param fsyncWindowMs  length of one group-commit window
+     */
+    public AtomicFileWriter(HytaleLogger logger, boolean groupCommit, long fsyncWindowMs) {
+        this.logger = logger;
+        this.groupCommit = groupCommit;
+        if (groupCommit) {
+            long windowMs = Math.max(1, fsyncWindowMs);
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "SeyonLevelSystem-GroupCommit");
+                t.setDaemon(true);
+                return t;
+            });
+            this.syncer.scheduleWithFixedDelay(this::commitSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Write content to target atomically. Without group commit the file is durable and in place when
+     * this returns; with group commit it is moved into place by the next commit window.
+     * @return completes when the content is durable, or exceptionally if the commit failed
+     */
+    public CompletableFuture<Void> write(Path target, byte[] content) throws IOException {
+        long generation = tempCounter.incrementAndGet();
+        Path temp = target.resolveSibling(target.getFileName() + "." + generation + TEMP_SUFFIX);
+        Files.write(temp, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        if (!groupCommit) {
+            try {
+                // The content must be on disk before the rename publishes it
+                fsync(temp);
+                move(temp, target);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            fsyncDirectory(target.getParent());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        PendingWrite write = new PendingWrite(temp, generation);
+        PendingWrite superseded;
+        synchronized (pending) {
+            superseded = pending.get(target);
+            if (superseded == null || superseded.generation < generation) {
+                pending.put(target, write);
+            }
+        }
+        if (superseded == null) {
+            return write.durable;
+        }
+        // Only the newer of the two is committed; the other one is durable together with it
+        PendingWrite older = superseded.generation < generation ? superseded : write;
+        PendingWrite newer = older == write ? superseded : write;
+        Files.deleteIfExists(older.temp);
+        newer.durable.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                older.durable.completeExceptionally(failure);
+            } else {
+                older.durable.complete(null);
+            }
+        });
+        return write.durable;
+    }
+
+    /**
+     * If a write for target is waiting for the commit window, fsync and move it now.
+     */
+    public void commitPending(Path target) {
+        PendingWrite write;
+        IOException failure = null;
+        synchronized (commitLock) {
+            synchronized (pending) {
+                write = pending.remove(target);
+            }
+            if (write == null) {
+                return;
+            }
+            try {
+                fsync(write.temp);
+                move(write.temp, target);
+                fsyncDirectory(target.getParent());
+            } catch (IOException e) {
+                failure = e;
+                logger.at(Level.SEVERE).withCause(e).log("Failed to commit " + target.getFileName());
+            }
+        }
+        // Completed outside the commit lock: callbacks may take player locks
+        write.finish(failure);
+    }
+
+    /**
+     * Commit everything that is pending: one fsync per file, then the moves, then one fsync per directory.
+     * A write that fails is reported through its future; the others are committed anyway.
+     */
+    public void commitAll() {
+        List<Map.Entry<Path, PendingWrite>> batch;
+        Map<PendingWrite, IOException> failures = new HashMap<>();
+        synchronized (commitLock) {
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.entrySet());
+                pending.clear();
+            }
+
+            Set<Path> directories = new HashSet<>();
+            for (Map.Entry<Path, PendingWrite> entry : batch) {
+                Path target = entry.getKey();
+                PendingWrite write = entry.getValue();
+                try {
+                    fsync(write.temp);
+                    move(write.temp, target);
+                    directories.add(target.getParent());
+                } catch (IOException e) {
+                    failures.put(write, e);
+                    logger.at(Level.SEVERE).withCause(e).log("Failed to commit " + target.getFileName());
+                }
+            }
+            for (Path directory : directories) {
+                fsyncDirectory(directory);
+            }
+        }
+        for (Map.Entry<Path, PendingWrite> entry : batch) {
+            entry.getValue().finish(failures.get(entry.getValue()));
+        }
+        logger.at(Level.FINE).log("Group commit: " + batch.size() + " file(s)" + (failures.isEmpty() ? "" : ", " + failures.size() + " failed"));
+    }
+
+    private void commitSafely() {
+        try {
+            commitAll();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Group commit failed");
+        }
+    }
+
+    /**
+     * Stop the group-commit thread and commit what is still pending.
+     */
+    public void shutdown() {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                if (!syncer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    syncer.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                syncer.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        commitAll();
+    }
+
+    /**
+     * Delete temp files left over from a crash or kill during a write.
+     */
+    public void cleanupTempFiles(Path directory) {
+        try (var stream = Files.newDirectoryStream(directory, "*" + TEMP_SUFFIX)) {
+            for (Path leftover : stream) {
+                Files.deleteIfExists(leftover);
+                logger.at(Level.WARNING).log("Removed incomplete write: " + leftover.getFileName());
+            }
+        } catch (IOException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to clean up temp files in " + directory);
+        }
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void fsync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Make the renames durable. Not supported on every platform (e.g. Windows); failures are ignored.
+     */
+    private static void fsyncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Directory fsync is best effort
+        }
+    }
+
+    /**
+     * A temp file waiting for the commit window
+     */
+    private static final class PendingWrite {
+        final Path temp;
+        final long generation;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        PendingWrite(Path temp, long generation) {
+            this.temp = temp;
+            this.generation = generation;
+        }
+
+        void finish(IOException failure) {
+            if (failure != null) {
+                durable.completeExceptionally(failure);
+            } else {
+                durable.complete(null);
+            }
+        }
+    }
+}
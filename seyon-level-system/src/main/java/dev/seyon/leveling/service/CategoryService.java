@@ -3,49 +3,89 @@ package dev.seyon.leveling.service;
 import com.hypixel.hytale.logger.HytaleLogger;
 import dev.seyon.leveling.config.LevelSystemCategory;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
 /**
  * Service for managing categories
+ * <p>
+ * Categories are published as an immutable snapshot behind one volatile reference: loading and
+ * registering build a new snapshot and swap it in, so world threads never see a half-filled
+ * registry during {@code /seyon-level reload} and read without locking. Each snapshot also
+ * holds the {@link CompiledCategory} form of every category for indexed lookups.
  */
 public class CategoryService {
 
     private final HytaleLogger logger;
-    private final Map<String, LevelSystemCategory> categoryMap;
+    private final ModifierRegistry modifierRegistry = new ModifierRegistry();
+    private volatile Snapshot snapshot = new Snapshot(new LinkedHashMap<>(), 100, modifierRegistry);
 
     public CategoryService(HytaleLogger logger) {
         this.logger = logger;
-        this.categoryMap = new HashMap<>();
     }
 
     /**
-     * Load categories from config service
+     * Load categories from config service (already validated by {@link LevelSystemConfigService#load()})
      */
     public void loadCategories(LevelSystemConfigService configService) {
-        categoryMap.clear();
+        Map<String, LevelSystemCategory> categories = new LinkedHashMap<>();
         
         for (LevelSystemCategory category : configService.getCategories()) {
-            categoryMap.put(category.getId(), category);
+            categories.put(category.getId(), category);
             logger.at(Level.INFO).log("Registered category: " + category.getId() + " (" + category.getDisplayName() + ")");
         }
+        
+        int maxLevel = configService.getMainConfig().getGlobalSettings().getMaxLevel();
+        synchronized (this) {
+            snapshot = new Snapshot(categories, maxLevel, modifierRegistry);
+        }
     }
 
     /**
      * Get category by ID
      */
     public LevelSystemCategory getCategory(String categoryId) {
-        return categoryMap.get(categoryId);
+        return snapshot.categories.get(categoryId);
+    }
+
+    /**
+     * Get the indexed lookup form of a category, or null if unknown
+     */
+    public CompiledCategory getCompiledCategory(String categoryId) {
+        return snapshot.compiled.get(categoryId);
+    }
+
+    /**
+     * Get the indexed lookup form of all categories, in category order (unmodifiable)
+     */
+    public List<CompiledCategory> getAllCompiledCategories() {
+        return snapshot.allCompiled;
+    }
+
+    /**
+     * Get the slots of all modifier IDs used by the loaded categories
+     */
+    public ModifierRegistry getModifierRegistry() {
+        return modifierRegistry;
     }
 
     /**
-     * Get all categories
+     * Get the precomputed EXP curve of a category (up to max_level), or null if unknown
+     */
+    public ExpCurveTable getExpTable(String categoryId) {
+        CompiledCategory compiled = snapshot.compiled.get(categoryId);
+        return compiled != null ? compiled.getExpTable() : null;
+    }
+
+    /**
+     * Get all categories (unmodifiable)
      */
     public List<LevelSystemCategory> getAllCategories() {
-        return new ArrayList<>(categoryMap.values());
+        return snapshot.all;
     }
 
     /**
@@ -56,8 +96,17 @@ public class CategoryService {
             logger.at(Level.WARNING).log("Attempted to register null or invalid category");
             return;
         }
+        String formulaError = category.getExpCurve() != null ? category.getExpCurve().getFormulaError() : null;
+        if (formulaError != null) {
+            logger.at(Level.WARNING).log("Rejected category " + category.getId() + ": invalid custom EXP formula: " + formulaError);
+            return;
+        }
         
-        categoryMap.put(category.getId(), category);
+        synchronized (this) {
+            Map<String, LevelSystemCategory> categories = new LinkedHashMap<>(snapshot.categories);
+            categories.put(category.getId(), category);
+            snapshot = new Snapshot(categories, snapshot.maxLevel, modifierRegistry);
+        }
         logger.at(Level.INFO).log("Registered category via API: " + category.getId());
     }
 
@@ -65,13 +114,36 @@ public class CategoryService {
      * Check if a category exists
      */
     public boolean hasCategory(String categoryId) {
-        return categoryMap.containsKey(categoryId);
+        return snapshot.categories.containsKey(categoryId);
     }
 
     /**
-     * Get category IDs
+     * Get category IDs (unmodifiable)
      */
     public List<String> getCategoryIds() {
-        return new ArrayList<>(categoryMap.keySet());
+        return snapshot.ids;
+    }
+
+    /**
+     * Immutable view of all categories, replaced as a whole
+     */
+    private static final class Snapshot {
+        final Map<String, LevelSystemCategory> categories;
+        final List<LevelSystemCategory> all;
+        final List<String> ids;
+        final Map<String, CompiledCategory> compiled = new HashMap<>();
+        final List<CompiledCategory> allCompiled;
+        final int maxLevel;
+
+        Snapshot(Map<String, LevelSystemCategory> categories, int maxLevel, ModifierRegistry modifierRegistry) {
+            this.categories = Collections.unmodifiableMap(categories);
+            this.all = List.copyOf(categories.values());
+            this.ids = List.copyOf(categories.keySet());
+            this.maxLevel = maxLevel;
+            for (LevelSystemCategory category : categories.values()) {
+                compiled.put(category.getId(), new CompiledCategory(category, maxLevel, modifierRegistry));
+            }
+            this.allCompiled = all.stream().map(category -> compiled.get(category.getId())).toList();
+        }
     }
 }
@@ -0,0 +1,157 @@
+package dev.seyon.leveling.service;
+
+import dev.seyon.leveling.config.LevelBonusConfig;
+import dev.seyon.leveling.config.LevelSystemCategory;
+import dev.seyon.leveling.config.SkillConfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read-only lookup form of a category, built once per load by {@link CategoryService}: level
+ * bonuses in an array indexed by level together with their running totals, skills in a hash
+ * index and milestone quest levels in a sorted array. Bonus totals and skill effects are compiled
+ * to {@link SparseModifiers} over the slots of the shared {@link ModifierRegistry}.
+ * <p>
+ * The config object stays the source of truth; changes to it take effect on the next
+ * {@code /seyon-level reload} or {@code registerCategory}.
+ */
+public final class CompiledCategory {
+
+    private final LevelSystemCategory category;
+    private final ModifierRegistry modifierRegistry;
+    /** Index = level; null where the level has no bonus */
+    private final LevelBonusConfig[] bonusByLevel;
+    /** Index = level; sum of all bonuses from level 1 up to that level */
+    private final SparseModifiers[] cumulativeBonuses;
+    private final Map<String, SkillConfig> skillsById;
+    private final List<SkillConfig> skills;
+    /** Effects per point of each skill, same order as {@link #skills} */
+    private final SparseModifiers[] skillEffects;
+    private final int[] milestoneLevels;
+    @Nullable private final ExpCurveTable expTable;
+
+    public CompiledCategory(LevelSystemCategory category, int maxLevel, ModifierRegistry modifierRegistry) {
+        this.category = category;
+        this.modifierRegistry = modifierRegistry;
+
+        int topLevel = 0;
+        for (LevelBonusConfig bonus : category.getLevelBonuses()) {
+            if (bonus != null) {
+                topLevel = Math.max(topLevel, bonus.getLevel());
+            }
+        }
+        this.bonusByLevel = new LevelBonusConfig[topLevel + 1];
+        for (LevelBonusConfig bonus : category.getLevelBonuses()) {
+            // First entry per level wins, as with LevelSystemCategory.getLevelBonus
+            if (bonus != null && bonus.getLevel() >= 1 && bonusByLevel[bonus.getLevel()] == null) {
+                bonusByLevel[bonus.getLevel()] = bonus;
+            }
+        }
+
+        this.cumulativeBonuses = new SparseModifiers[topLevel + 1];
+        SparseModifiers running = SparseModifiers.EMPTY;
+        cumulativeBonuses[0] = running;
+        for (int level = 1; level <= topLevel; level++) {
+            LevelBonusConfig bonus = bonusByLevel[level];
+            if (bonus != null) {
+                running = running.plus(modifierRegistry.compile(bonus.getModifiers()));
+            }
+            cumulativeBonuses[level] = running;
+        }
+
+        Map<String, SkillConfig> byId = new LinkedHashMap<>();
+        for (SkillConfig skill : category.getSkills()) {
+            if (skill != null && skill.getId() != null) {
+                byId.putIfAbsent(skill.getId(), skill);
+            }
+        }
+        this.skillsById = Collections.unmodifiableMap(byId);
+        this.skills = List.copyOf(byId.values());
+        this.skillEffects = new SparseModifiers[skills.size()];
+        for (int i = 0; i < skills.size(); i++) {
+            skillEffects[i] = modifierRegistry.compile(skills.get(i).getEffects());
+        }
+
+        this.milestoneLevels = category.getMilestones().keySet().stream()
+            .filter(level -> level != null)
+            .mapToInt(Integer::intValue)
+            .sorted()
+            .toArray();
+        this.expTable = category.getExpCurve() != null ? new ExpCurveTable(category, maxLevel, milestoneLevels) : null;
+    }
+
+    public LevelSystemCategory getCategory() {
+        return category;
+    }
+
+    public String getId() {
+        return category.getId();
+    }
+
+    /**
+     * Bonus granted at exactly this level, or null
+     */
+    @Nullable
+    public LevelBonusConfig getLevelBonus(int level) {
+        return level >= 1 && level < bonusByLevel.length ? bonusByLevel[level] : null;
+    }
+
+    /**
+     * Sum of all level bonuses from level 1 up to this level, as modifier_id -> value (for display)
+     */
+    public Map<String, Double> getCumulativeLevelBonuses(int level) {
+        SparseModifiers total = getCumulativeBonusModifiers(level);
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (int i = 0; i < total.size(); i++) {
+            map.put(modifierRegistry.name(total.slotAt(i)), total.valueAt(i));
+        }
+        return map;
+    }
+
+    /**
+     * Sum of all level bonuses from level 1 up to this level, precomputed per level
+     */
+    public SparseModifiers getCumulativeBonusModifiers(int level) {
+        if (level < 1) {
+            return SparseModifiers.EMPTY;
+        }
+        return cumulativeBonuses[Math.min(level, cumulativeBonuses.length - 1)];
+    }
+
+    @Nullable
+    public SkillConfig getSkill(String skillId) {
+        return skillId != null ? skillsById.get(skillId) : null;
+    }
+
+    /**
+     * Skills in config order, one per ID (unmodifiable)
+     */
+    public List<SkillConfig> getSkills() {
+        return skills;
+    }
+
+    /**
+     * Effects per point of the skill at this index of {@link #getSkills()}
+     */
+    public SparseModifiers getSkillEffects(int index) {
+        return skillEffects[index];
+    }
+
+    public boolean hasQuestAtLevel(int level) {
+        return Arrays.binarySearch(milestoneLevels, level) >= 0;
+    }
+
+    /**
+     * Precomputed EXP curve up to max_level, or null if the category has no curve
+     */
+    @Nullable
+    public ExpCurveTable getExpTable() {
+        return expTable;
+    }
+}
@@ -188,6 +188,9 @@ public class DefaultConfigProvider {
         addMiningAction(actions, "Ore_Onyxium_Shale", 50.0, 2.5);
         addMiningAction(actions, "Ore_Onyxium_Stone", 50.0, 2.5);
         addMiningAction(actions, "Ore_Onyxium_Volcanic", 50.0, 2.5);
+
+        // Any other ore (new variants, modded ores): common-ore EXP
+        addMiningAction(actions, "Ore_*", 2.0, 1.0);
         return actions;
     }
 
@@ -277,6 +280,9 @@ public class DefaultConfigProvider {
         addWoodAction(actions, "Wood_Stripped_Deco", baseExp, 1.0);
         addWoodAction(actions, "Wood_Windwillow_Trunk", baseExp, 1.0);
         addWoodAction(actions, "Wood_Wisteria_Wild_Trunk", baseExp, 1.0);
+
+        // Any other trunk (new species, modded trees)
+        addWoodAction(actions, "Wood_*_Trunk", baseExp, 1.0);
         return actions;
     }
 
@@ -536,17 +542,12 @@ public class DefaultConfigProvider {
         addFarmingHarvestAction(actions, "harvest_Plant_Crop_Onion_Block", 5.4);
         addFarmingHarvestAction(actions, "harvest_Plant_Crop_Potato_Block", 5.6);
 
-        // All other Plant_Crop_*_Block from API matching the schema (default 4.0); overridable via farming_harvest.json
-        java.util.Set<String> ordered = java.util.Set.of(
-                "harvest_Plant_Crop_Wheat_Block", "harvest_Plant_Crop_Lettuce_Block", "harvest_Plant_Crop_Carrot_Block",
-                "harvest_Plant_Crop_Corn_Block", "harvest_Plant_Crop_Cauliflower_Block", "harvest_Plant_Crop_Turnip_Block",
-                "harvest_Plant_Crop_Aubergine_Block", "harvest_Plant_Crop_Pumpkin_Block", "harvest_Plant_Crop_Tomato_Block",
-                "harvest_Plant_Crop_Chilli_Block", "harvest_Plant_Crop_Cotton_Block", "harvest_Plant_Crop_Rice_Block",
-                "harvest_Plant_Crop_Onion_Block", "harvest_Plant_Crop_Potato_Block");
-        double defaultExp = 4.0;
-        for (String actionId : FARMING_HARVEST_BLOCK_IDS) {
-            if (ordered.contains(actionId)) continue;
-            addFarmingHarvestAction(actions, actionId, defaultExp);
+        // Every other crop block, including ones added by mods (exact IDs above take precedence); overridable via farming_harvest.json
+        addFarmingHarvestAction(actions, "harvest_Plant_Crop_*_Block", 4.0);
+        // Harvestable crops whose ID does not end in _Block (mushrooms, burnt wheat); listed so the
+        // pattern does not also match _Item, _Block_Wall or _Branch IDs
+        for (String actionId : FARMING_HARVEST_OTHER_IDS) {
+            addFarmingHarvestAction(actions, actionId, 4.0);
         }
         return actions;
     }
@@ -558,26 +559,8 @@ public class DefaultConfigProvider {
         actions.getActions().add(m);
     }
 
-    /** All harvest_&lt;blockId&gt; for Plant_Crop_*_Block from hytaleitemids.com (Plant_Crop_ search). Excludes _Item, _Block_Wall, _Branch. */
-    private static final String[] FARMING_HARVEST_BLOCK_IDS = {
-            "harvest_Plant_Crop_Apple_Block",
-            "harvest_Plant_Crop_Aubergine_Block",
-            "harvest_Plant_Crop_Berry_Block",
-            "harvest_Plant_Crop_Berry_Wet_Block",
-            "harvest_Plant_Crop_Berry_Winter_Block",
-            "harvest_Plant_Crop_Carrot_Block",
-            "harvest_Plant_Crop_Cauliflower_Block",
-            "harvest_Plant_Crop_Chilli_Block",
-            "harvest_Plant_Crop_Corn_Block",
-            "harvest_Plant_Crop_Cotton_Block",
-            "harvest_Plant_Crop_Health1_Block",
-            "harvest_Plant_Crop_Health2_Block",
-            "harvest_Plant_Crop_Health3_Block",
-            "harvest_Plant_Crop_Lettuce_Block",
-            "harvest_Plant_Crop_Mana1_Block",
-            "harvest_Plant_Crop_Mana2_Block",
-            "harvest_Plant_Crop_Mana3_Block",
-            "harvest_Plant_Crop_Mushroom_Block",
+    /** harvest_&lt;blockId&gt; of Plant_Crop_ blocks not covered by harvest_Plant_Crop_*_Block (from hytaleitemids.com, Plant_Crop_ search) */
+    private static final String[] FARMING_HARVEST_OTHER_IDS = {
             "harvest_Plant_Crop_Mushroom_Block_Blue",
             "harvest_Plant_Crop_Mushroom_Block_Blue_Mycelium",
             "harvest_Plant_Crop_Mushroom_Block_Blue_Trunk",
@@ -620,16 +603,6 @@ public class DefaultConfigProvider {
             "harvest_Plant_Crop_Mushroom_Shelve_Brown",
             "harvest_Plant_Crop_Mushroom_Shelve_Green",
             "harvest_Plant_Crop_Mushroom_Shelve_Yellow",
-            "harvest_Plant_Crop_Onion_Block",
-            "harvest_Plant_Crop_Potato_Block",
-            "harvest_Plant_Crop_Pumpkin_Block",
-            "harvest_Plant_Crop_Rice_Block",
-            "harvest_Plant_Crop_Stamina1_Block",
-            "harvest_Plant_Crop_Stamina2_Block",
-            "harvest_Plant_Crop_Stamina3_Block",
-            "harvest_Plant_Crop_Tomato_Block",
-            "harvest_Plant_Crop_Turnip_Block",
-            "harvest_Plant_Crop_Wheat_Block",
             "harvest_Plant_Crop_Wheat_Stage_4_Burnt"
     };
 
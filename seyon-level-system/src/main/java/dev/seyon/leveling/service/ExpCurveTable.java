@@ -0,0 +1,100 @@
+package dev.seyon.leveling.service;
+
+import dev.seyon.leveling.config.LevelSystemCategory;
+import dev.seyon.leveling.model.CategoryProgress;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed EXP curve of one category: the EXP needed per level and the cumulative EXP up to
+ * each level, so an EXP total resolves to levels with a binary search instead of a loop.
+ * <p>
+ * {@code cumulative[k]} is the EXP needed to go from level 1 to level k + 1. Milestone quest
+ * levels are kept sorted, since EXP cannot carry a player past an open quest.
+ */
+public final class ExpCurveTable {
+
+    private final double[] perLevel;
+    private final double[] cumulative;
+    private final int[] questLevels;
+
+    /**
+     * @param milestoneLevels the category's milestone quest levels, ascending
+     */
+    public ExpCurveTable(LevelSystemCategory category, int maxLevel, int[] milestoneLevels) {
+        int levels = Math.max(1, maxLevel);
+        this.perLevel = new double[levels + 1];
+        this.cumulative = new double[levels + 1];
+        for (int level = 1; level <= levels; level++) {
+            double required = Math.max(0, category.getExpCurve().calculateExpForLevel(level));
+            perLevel[level] = required;
+            cumulative[level] = cumulative[level - 1] + required;
+        }
+        this.questLevels = Arrays.stream(milestoneLevels)
+            .filter(level -> level > 1 && level < levels)
+            .toArray();
+    }
+
+    public int getMaxLevel() {
+        return perLevel.length - 1;
+    }
+
+    /**
+     * EXP needed to go from this level to the next
+     */
+    public double expForLevel(int level) {
+        return perLevel[clamp(level)];
+    }
+
+    /**
+     * Highest level EXP can carry a player to from this level: the next quest level, or max level
+     */
+    public int nextGateLevel(int level) {
+        int index = Arrays.binarySearch(questLevels, level + 1);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < questLevels.length ? questLevels[index] : getMaxLevel();
+    }
+
+    /**
+     * Overflow mode: add EXP on top of the EXP already collected since the current level and set
+     * pending level-ups to every level the total covers, up to the next quest level or max level.
+     * EXP carries over between levels; at that cap the excess is dropped and EXP gain stops until
+     * the pending levels are processed.
+     *
+     * @return true if pending level-ups increased
+     */
+    public boolean addExp(CategoryProgress progress, double amount) {
+        int level = clamp(progress.getCurrentLevel());
+        int cap = Math.max(level, nextGateLevel(level));
+        double start = cumulative[level - 1];
+        double total = progress.getCurrentExp() + amount;
+
+        // Highest reachable level: largest k in [level, cap] with cumulative[k - 1] - start <= total
+        int low = level;
+        int high = cap;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (cumulative[mid - 1] - start <= total) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int before = progress.getPendingLevelUps();
+        int pending = low - level;
+        if (low == cap && cap > level) {
+            total = cumulative[cap - 1] - start;
+            progress.setCanGainExp(false);
+        }
+        progress.setCurrentExp(total);
+        progress.setPendingLevelUps(pending);
+        return pending > before;
+    }
+
+    private int clamp(int level) {
+        return Math.max(1, Math.min(level, getMaxLevel()));
+    }
+}
@@ -0,0 +1,220 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Collects EXP grants from the event systems per (player, category) and applies them in one
+ * {@link ExperienceService#grantExp} call per category and window: one mutation, one dirty mark
+ * and one notification instead of one per broken block.
+ * <p>
+ * Grants are applied by {@link #drainDue} from the player's tick, on disconnect and on shutdown.
+ * Grants that no tick drains (e.g. the player left a world that stopped ticking) are applied without
+ * a player entity by a background sweep once they are {@value #OVERDUE_MS} ms past their window.
+ * A window of 0 applies every grant immediately.
+ * <p>
+ * A player's entry only exists while grants are queued: every add, drain and removal of an entry
+ * runs inside a map operation on that player's key, so no grant can land in an entry that was
+ * already taken out.
+ */
+public class ExpGrantAccumulator {
+
+    /** Grants this long past their window are applied by the sweep */
+    private static final long OVERDUE_MS = 5000;
+
+    private final HytaleLogger logger;
+    private final ExperienceService experienceService;
+    private final Map<UUID, PendingGrants> pending = new ConcurrentHashMap<>();
+    private volatile long windowMs;
+    private ScheduledExecutorService sweeper;
+
+    public ExpGrantAccumulator(HytaleLogger logger, ExperienceService experienceService) {
+        this.logger = logger;
+        this.experienceService = experienceService;
+    }
+
+    public void setWindowMs(long windowMs) {
+        this.windowMs = Math.max(0, windowMs);
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Start the background sweep of overdue grants
+     */
+    public void start() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-ExpGrantSweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::drainOverdueSafely, OVERDUE_MS, OVERDUE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue EXP for a player; applied with the other grants of the same category in this window.
+     * The player may be null (e.g. a kill assist); the player entity is then taken from the tick that drains it.
+     */
+    public void add(UUID playerId, String categoryId, double amount, Player player) {
+        if (playerId == null || categoryId == null || amount <= 0) {
+            return;
+        }
+        if (windowMs <= 0) {
+            experienceService.grantExp(playerId, categoryId, amount, player);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.compute(playerId, (id, grants) -> {
+            PendingGrants current = grants != null ? grants : new PendingGrants();
+            current.add(categoryId, amount, player, now);
+            return current;
+        });
+    }
+
+    /**
+     * Apply the player's grants if the window since the first queued grant has passed (called every tick)
+     */
+    public void drainDue(UUID playerId, Player player, long now) {
+        PendingGrants grants = pending.get(playerId);
+        if (grants == null || !grants.isDue(now, windowMs)) {
+            return;
+        }
+        apply(playerId, take(playerId, player, now, windowMs));
+    }
+
+    /**
+     * Apply all of the player's grants now (disconnect)
+     */
+    public void flush(UUID playerId) {
+        PendingGrants grants = pending.remove(playerId);
+        if (grants != null) {
+            apply(playerId, grants.drain(null));
+        }
+    }
+
+    /**
+     * Stop the sweep and apply all queued grants (shutdown, before player data is saved)
+     */
+    public void flushAll() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        for (UUID playerId : pending.keySet()) {
+            flush(playerId);
+        }
+    }
+
+    /**
+     * Apply the grants no tick drained in time, without a player entity (nobody to notify)
+     */
+    private void drainOverdue() {
+        long now = System.currentTimeMillis();
+        long overdue = windowMs + OVERDUE_MS;
+        int players = 0;
+        for (Map.Entry<UUID, PendingGrants> entry : pending.entrySet()) {
+            if (entry.getValue().isDue(now, overdue)) {
+                Drained drained = take(entry.getKey(), null, now, overdue);
+                if (drained != null) {
+                    apply(entry.getKey(), new Drained(drained.amounts, null));
+                    players++;
+                }
+            }
+        }
+        if (players > 0) {
+            logger.at(Level.FINE).log("Applied overdue EXP grants of " + players + " player(s)");
+        }
+    }
+
+    private void drainOverdueSafely() {
+        try {
+            drainOverdue();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("EXP grant sweep failed");
+        }
+    }
+
+    /**
+     * Remove the player's entry if it is still due and return its grants
+     */
+    private Drained take(UUID playerId, Player player, long now, long windowMs) {
+        Drained[] taken = new Drained[1];
+        pending.computeIfPresent(playerId, (id, grants) -> {
+            if (!grants.isDue(now, windowMs)) {
+                return grants;
+            }
+            taken[0] = grants.drain(player);
+            return null;
+        });
+        return taken[0];
+    }
+
+    private void apply(UUID playerId, Drained drained) {
+        if (drained == null) {
+            return;
+        }
+        for (Map.Entry<String, Double> entry : drained.amounts.entrySet()) {
+            try {
+                experienceService.grantExp(playerId, entry.getKey(), entry.getValue(), drained.player);
+            } catch (Exception e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to apply queued EXP for " + playerId + " in " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Summed grants of one player since the last drain
+     */
+    private static final class PendingGrants {
+        private final Map<String, Double> amounts = new LinkedHashMap<>();
+        private Player player;
+        private long firstAddedAt;
+
+        synchronized void add(String categoryId, double amount, Player player, long now) {
+            if (amounts.isEmpty()) {
+                firstAddedAt = now;
+            }
+            amounts.merge(categoryId, amount, Double::sum);
+            if (player != null) {
+                this.player = player;
+            }
+        }
+
+        synchronized boolean isDue(long now, long windowMs) {
+            return !amounts.isEmpty() && now - firstAddedAt >= windowMs;
+        }
+
+        synchronized Drained drain(Player current) {
+            if (amounts.isEmpty()) {
+                return null;
+            }
+            Drained drained = new Drained(new LinkedHashMap<>(amounts), current != null ? current : player);
+            amounts.clear();
+            return drained;
+        }
+    }
+
+    private static final class Drained {
+        final Map<String, Double> amounts;
+        final Player player;
+
+        Drained(Map<String, Double> amounts, Player player) {
+            this.amounts = amounts;
+            this.player = player;
+        }
+    }
+}
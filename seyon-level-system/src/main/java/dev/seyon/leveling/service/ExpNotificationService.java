@@ -2,20 +2,36 @@ package dev.seyon.leveling.service;
 
 import com.hypixel.hytale.protocol.ItemWithAllMetadata;
 import com.hypixel.hytale.server.core.Message;
-import com.hypixel.hytale.server.core.io.PacketHandler;
+import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
-import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.util.NotificationUtil;
+import dev.seyon.core.PlayerUtils;
 import dev.seyon.leveling.config.LevelSystemCategory;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
 /**
  * Sends in-game notifications when a player gains EXP. Uses Hytale's NotificationUtil
  * (item-pickup style). Icon is taken from the category's notification_icon (item ID).
+ * <p>
+ * Gains are coalesced per player and category: at most one "+N Mining EXP" notification per
+ * category and interval, showing the sum since the last one, and at most a fixed number of
+ * notification packets per player and second. A background thread finds held-back gains that are due
+ * and hands them to the player's world thread, which sends them; packets are never sent from the
+ * background thread. A category's icon packet is built on its first notification and cached.
  *
  * @see <a href="https://hytalemodding.dev/en/docs/guides/plugin/send-notifications">Sending notifications</a>
  */
@@ -23,38 +39,85 @@ public class ExpNotificationService {
 
     /** Fallback item ID when category has no notification_icon. Must be a valid Hytale item ID. */
     private static final String DEFAULT_ICON_ITEM_ID = "Item_Material_Coin";
+    private static final long BUDGET_WINDOW_MS = 1000;
+
+    /** Replaced as a whole on reload, so a send never sees a half-built map */
+    private volatile Map<String, CategoryNotification> categories = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerNotifications> players = new ConcurrentHashMap<>();
+    private volatile long intervalMs = 1000;
+    private volatile int maxPerSecond = 4;
+    private ScheduledExecutorService scheduler;
 
     public ExpNotificationService() {}
 
     /**
-     * Send an EXP gain notification to the player. No-op if player is offline or category is null.
+     * Apply interval and packet budget (0 = no coalescing) and start sending held-back gains
+     */
+    public synchronized void start(long intervalMs, int maxPerSecond) {
+        this.intervalMs = Math.max(0, intervalMs);
+        this.maxPerSecond = Math.max(1, maxPerSecond);
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "SeyonLevelSystem-Notifications");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::dispatchDue, 100, 100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        players.clear();
+    }
+
+    /**
+     * Build notification text and icon packets for all categories (call after categories are (re)loaded)
+     */
+    public void loadCategories(Collection<LevelSystemCategory> loaded) {
+        Map<String, CategoryNotification> built = new ConcurrentHashMap<>();
+        for (LevelSystemCategory category : loaded) {
+            built.put(category.getId(), new CategoryNotification(category));
+        }
+        categories = built;
+    }
+
+    /**
+     * Forget a player's held-back gains and cached connection (disconnect)
+     */
+    public void removePlayer(UUID playerId) {
+        players.remove(playerId);
+    }
+
+    /**
+     * Send an EXP gain notification to the player (call on the player's world thread). No-op if the
+     * category is null. The gain may be held back and merged with later gains of the same category.
      *
      * @param playerId  player UUID
+     * @param player    the online player (their connection and world are remembered for held-back gains)
      * @param category  category (for display name and notification_icon)
      * @param amount   EXP amount (format: integer if whole, else one decimal)
      */
-    public void sendExpGain(UUID playerId, @Nullable LevelSystemCategory category, double amount) {
-        if (playerId == null || category == null || amount <= 0) {
+    public void sendExpGain(UUID playerId, Player player, @Nullable LevelSystemCategory category, double amount) {
+        if (playerId == null || player == null || category == null || amount <= 0) {
             return;
         }
 
-        PlayerRef playerRef = Universe.get().getPlayer(playerId);
-        if (playerRef == null) {
-            return;
-        }
-
-        PacketHandler handler = playerRef.getPacketHandler();
-        String displayName = category.getDisplayName() != null ? category.getDisplayName() : category.getId();
-        String formattedAmount = amount == (long) amount ? String.valueOf((long) amount) : String.valueOf(amount);
-        Message primary = Message.raw("+" + formattedAmount + " " + displayName + " EXP").color("#00FF00");
+        // Categories registered through the API after the last load are built on first use
+        categories.computeIfAbsent(category.getId(), id -> new CategoryNotification(category));
+        PlayerNotifications state = players.computeIfAbsent(playerId, id -> new PlayerNotifications());
+        state.add(category.getId(), amount, player);
+        state.sendDue(System.currentTimeMillis());
+    }
 
-        String iconItemId = category.getNotificationIcon();
-        if (iconItemId == null || iconItemId.isEmpty()) {
-            iconItemId = DEFAULT_ICON_ITEM_ID;
+    private void dispatchDue() {
+        long now = System.currentTimeMillis();
+        for (PlayerNotifications state : players.values()) {
+            state.dispatchDue(now);
         }
-
-        ItemWithAllMetadata itemPacket = toItemPacket(iconItemId);
-        NotificationUtil.sendNotification(handler, primary, null, itemPacket);
     }
 
     /**
@@ -69,4 +132,145 @@ public class ExpNotificationService {
             return null;
         }
     }
+
+    private static String formatAmount(double amount) {
+        if (amount == (long) amount) {
+            return String.valueOf((long) amount);
+        }
+        return String.valueOf(Math.round(amount * 10.0) / 10.0);
+    }
+
+    /**
+     * Text suffix and icon packet of one category
+     */
+    private static final class CategoryNotification {
+        final String suffix;
+        private final String iconItemId;
+        @Nullable private volatile ItemWithAllMetadata icon;
+
+        CategoryNotification(LevelSystemCategory category) {
+            String displayName = category.getDisplayName() != null ? category.getDisplayName() : category.getId();
+            this.suffix = " " + displayName + " EXP";
+            String itemId = category.getNotificationIcon();
+            this.iconItemId = itemId == null || itemId.isEmpty() ? DEFAULT_ICON_ITEM_ID : itemId;
+        }
+
+        /**
+         * Icon packet, built on first use: item assets may not be loaded yet when categories are.
+         * Not cached while it cannot be built, so a later send retries.
+         */
+        @Nullable
+        ItemWithAllMetadata icon() {
+            ItemWithAllMetadata packet = icon;
+            if (packet == null) {
+                packet = toItemPacket(iconItemId);
+                icon = packet;
+            }
+            return packet;
+        }
+    }
+
+    /**
+     * Held-back gains, last send per category and packet budget of one player
+     */
+    private final class PlayerNotifications {
+        private final Map<String, Double> pending = new LinkedHashMap<>();
+        private final Map<String, Long> lastSentAt = new HashMap<>();
+        private PlayerRef playerRef;
+        @Nullable private World world;
+        /** A send is queued on the world thread */
+        private boolean dispatched;
+        private long budgetWindowStart;
+        private int sentInWindow;
+
+        synchronized void add(String categoryId, double amount, Player player) {
+            pending.merge(categoryId, amount, Double::sum);
+            playerRef = PlayerUtils.getPlayerRef(player);
+            world = player.getWorld();
+        }
+
+        /**
+         * Queue a send of the due gains on the player's world thread (called by the background thread)
+         */
+        void dispatchDue(long now) {
+            World target;
+            synchronized (this) {
+                if (dispatched || world == null || !hasDue(now)) {
+                    return;
+                }
+                dispatched = true;
+                target = world;
+            }
+            try {
+                target.execute(() -> {
+                    synchronized (this) {
+                        dispatched = false;
+                    }
+                    sendDue(System.currentTimeMillis());
+                });
+            } catch (RuntimeException e) {
+                // World is shutting down; the next gain sends them
+                synchronized (this) {
+                    dispatched = false;
+                }
+            }
+        }
+
+        private boolean hasDue(long now) {
+            if (now - budgetWindowStart < BUDGET_WINDOW_MS && sentInWindow >= maxPerSecond) {
+                return false;
+            }
+            for (String categoryId : pending.keySet()) {
+                Long last = lastSentAt.get(categoryId);
+                if (last == null || now - last >= intervalMs) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Send the due gains (on the player's world thread)
+         */
+        synchronized void sendDue(long now) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (now - budgetWindowStart >= BUDGET_WINDOW_MS) {
+                budgetWindowStart = now;
+                sentInWindow = 0;
+            }
+            Iterator<Map.Entry<String, Double>> it = pending.entrySet().iterator();
+            while (it.hasNext() && sentInWindow < maxPerSecond) {
+                Map.Entry<String, Double> entry = it.next();
+                Long last = lastSentAt.get(entry.getKey());
+                if (last != null && now - last < intervalMs) {
+                    continue;
+                }
+                it.remove();
+                if (!send(entry.getKey(), entry.getValue())) {
+                    pending.clear();
+                    return;
+                }
+                lastSentAt.put(entry.getKey(), now);
+                sentInWindow++;
+            }
+        }
+
+        /**
+         * @return false if the player has no connection
+         */
+        private boolean send(String categoryId, double amount) {
+            if (playerRef == null) {
+                return false;
+            }
+            CategoryNotification notification = categories.get(categoryId);
+            if (notification == null) {
+                return true;
+            }
+            Message primary = Message.raw("+" + formatAmount(amount) + notification.suffix).color("#00FF00");
+            NotificationUtil.sendNotification(playerRef.getPacketHandler(), primary, null, notification.icon());
+            return true;
+        }
+    }
 }
@@ -5,11 +5,13 @@ import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import dev.seyon.leveling.config.LevelSystemCategory;
 import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerDataMutation;
 import dev.seyon.leveling.model.PlayerLevelSystemData;
 import dev.seyon.core.PlayerUtils;
 
 import java.awt.Color;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 /**
@@ -53,42 +55,53 @@ public class ExperienceService {
             return;
         }
         
-        PlayerLevelSystemData data = dataService.getPlayerData(playerId);
-        CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
-        
-        // Check if player can gain EXP
-        if (!progress.isCanGainExp()) {
+        // Serialize with other changes and save snapshots of this player
+        ReentrantLock lock = dataService.lockPlayerData(playerId);
+        try {
+            PlayerLevelSystemData data = dataService.getPlayerData(playerId);
+            CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+            
+            // Check if player can gain EXP
+            if (!progress.isCanGainExp()) {
+                if (player != null) {
+                    player.sendMessage(Message.raw("You need to complete a quest to continue leveling " + categoryId + "!").color(Color.ORANGE));
+                }
+                return;
+            }
+            
+            // Check max level
+            int maxLevel = configService.getMainConfig().getGlobalSettings().getMaxLevel();
+            if (progress.getCurrentLevel() >= maxLevel) {
+                return; // Max level reached
+            }
+            
+            // Add EXP (overflow: carry over and resolve every covered level at once)
+            boolean levelUp;
+            ExpCurveTable expTable = overflowTable(categoryId);
+            if (expTable != null) {
+                levelUp = expTable.addExp(progress, amount);
+            } else {
+                levelUp = progress.addExp(amount);
+            }
+            
+            dataService.markDirty(playerId, categoryId, PlayerDataMutation.EXP);
+            
+            // Send EXP gain notification (item-pickup style) when player is online
             if (player != null) {
-                player.sendMessage(Message.raw("You need to complete a quest to continue leveling " + categoryId + "!").color(Color.ORANGE));
+                LevelSystemCategory category = categoryService.getCategory(categoryId);
+                expNotificationService.sendExpGain(playerId, player, category, amount);
             }
-            return;
-        }
-        
-        // Check max level
-        int maxLevel = configService.getMainConfig().getGlobalSettings().getMaxLevel();
-        if (progress.getCurrentLevel() >= maxLevel) {
-            return; // Max level reached
-        }
-        
-        // Add EXP
-        boolean levelUp = progress.addExp(amount);
-        
-        // Save data
-        dataService.savePlayerData(playerId, data);
-        
-        // Send EXP gain notification (item-pickup style) when player is online
-        if (player != null) {
-            LevelSystemCategory category = categoryService.getCategory(categoryId);
-            expNotificationService.sendExpGain(playerId, category, amount);
-        }
-        
-        // Handle level up
-        if (levelUp && player != null) {
-            player.sendMessage(Message.join(
-                Message.raw("Level Up! ").color(Color.ORANGE).bold(true),
-                Message.raw(categoryId + " is now ready to level up to ").color(Color.YELLOW),
-                Message.raw(String.valueOf(progress.getCurrentLevel() + 1)).color(Color.GREEN).bold(true)
-            ));
+            
+            // Handle level up
+            if (levelUp && player != null) {
+                player.sendMessage(Message.join(
+                    Message.raw("Level Up! ").color(Color.ORANGE).bold(true),
+                    Message.raw(categoryId + " is now ready to level up to ").color(Color.YELLOW),
+                    Message.raw(String.valueOf(progress.getCurrentLevel() + progress.getPendingLevelUps())).color(Color.GREEN).bold(true)
+                ));
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -104,8 +117,8 @@ public class ExperienceService {
      */
     public boolean canGainExp(UUID playerId, String categoryId) {
         PlayerLevelSystemData data = dataService.getPlayerData(playerId);
-        CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
-        return progress.isCanGainExp();
+        CategoryProgress progress = data.getCategoryProgress().get(categoryId);
+        return progress == null || progress.isCanGainExp(); // New categories start with EXP gain enabled
     }
 
     /**
@@ -128,58 +141,77 @@ public class ExperienceService {
             return;
         }
         
-        PlayerLevelSystemData data = dataService.getPlayerData(playerId);
-        CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
-        
-        if (progress.getPendingLevelUps() <= 0) {
-            return; // No pending level ups
-        }
-        
-        // Process level up
-        int oldLevel = progress.getCurrentLevel();
-        progress.levelUp();
-        int newLevel = progress.getCurrentLevel();
-        
-        // Grant skill points
-        int skillPoints = configService.getMainConfig().getGlobalSettings().getSkillPointsPerLevel();
-        data.addSkillPoints(categoryId, skillPoints);
-        
-        // Calculate new EXP requirement
-        double newExpRequired = category.getExpCurve().calculateExpForLevel(newLevel);
-        progress.setExpForNextLevel(newExpRequired);
-        
-        // Check if quest is required at this level
-        if (category.hasQuestAtLevel(newLevel)) {
-            progress.setCanGainExp(false);
+        ReentrantLock lock = dataService.lockPlayerData(playerId);
+        try {
+            PlayerLevelSystemData data = dataService.getPlayerData(playerId);
+            CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+            
+            if (progress.getPendingLevelUps() <= 0) {
+                return; // No pending level ups
+            }
+            
+            // Process level up (overflow: EXP beyond this level's requirement is kept)
+            int oldLevel = progress.getCurrentLevel();
+            ExpCurveTable expTable = overflowTable(categoryId);
+            double carriedExp = expTable != null
+                ? Math.max(0, progress.getCurrentExp() - expTable.expForLevel(oldLevel))
+                : 0;
+            progress.levelUp();
+            progress.setCurrentExp(carriedExp);
+            int newLevel = progress.getCurrentLevel();
+            
+            // Grant skill points
+            int skillPoints = configService.getMainConfig().getGlobalSettings().getSkillPointsPerLevel();
+            data.addSkillPoints(categoryId, skillPoints);
+            
+            // Calculate new EXP requirement
+            double newExpRequired = expForLevel(category, newLevel);
+            progress.setExpForNextLevel(newExpRequired);
+            
+            // Check if quest is required at this level
+            if (category.hasQuestAtLevel(newLevel)) {
+                progress.setCanGainExp(false);
+                if (player != null) {
+                    player.sendMessage(Message.join(
+                        Message.raw("Quest Required! ").color(Color.RED).bold(true),
+                        Message.raw("Complete the milestone quest to continue leveling.").color(Color.YELLOW)
+                    ));
+                }
+            }
+            
+            dataService.markDirty(playerId, categoryId, PlayerDataMutation.LEVEL_UP);
+            
+            // Send message
             if (player != null) {
                 player.sendMessage(Message.join(
-                    Message.raw("Quest Required! ").color(Color.RED).bold(true),
-                    Message.raw("Complete the milestone quest to continue leveling.").color(Color.YELLOW)
+                    Message.raw("✨ Level Up! ").color(Color.ORANGE).bold(true),
+                    Message.raw(category.getDisplayName() + " ").color(Color.YELLOW),
+                    Message.raw(oldLevel + " → " + newLevel).color(Color.GREEN).bold(true)
                 ));
+                
+                if (skillPoints > 0) {
+                    player.sendMessage(Message.join(
+                        Message.raw("+ ").color(Color.GREEN),
+                        Message.raw(String.valueOf(skillPoints)).color(Color.CYAN).bold(true),
+                        Message.raw(" Skill Point" + (skillPoints > 1 ? "s" : "")).color(Color.CYAN)
+                    ));
+                }
             }
+            
+            logger.at(Level.INFO).log("Player " + playerId + " leveled up " + categoryId + " to level " + newLevel);
+        } finally {
+            lock.unlock();
         }
-        
-        // Save data
-        dataService.savePlayerData(playerId, data);
-        
-        // Send message
-        if (player != null) {
-            player.sendMessage(Message.join(
-                Message.raw("✨ Level Up! ").color(Color.ORANGE).bold(true),
-                Message.raw(category.getDisplayName() + " ").color(Color.YELLOW),
-                Message.raw(oldLevel + " → " + newLevel).color(Color.GREEN).bold(true)
-            ));
-            
-            if (skillPoints > 0) {
-                player.sendMessage(Message.join(
-                    Message.raw("+ ").color(Color.GREEN),
-                    Message.raw(String.valueOf(skillPoints)).color(Color.CYAN).bold(true),
-                    Message.raw(" Skill Point" + (skillPoints > 1 ? "s" : "")).color(Color.CYAN)
-                ));
-            }
+    }
+
+    /**
+     * Precomputed curve of the category if exp_overflow_enabled, else null
+     */
+    private ExpCurveTable overflowTable(String categoryId) {
+        if (!configService.getMainConfig().getGlobalSettings().isExpOverflowEnabled()) {
+            return null;
         }
-        
-        logger.at(Level.INFO).log("Player " + playerId + " leveled up " + categoryId + " to level " + newLevel);
+        return categoryService.getExpTable(categoryId);
     }
 
     /**
@@ -191,6 +223,17 @@ public class ExperienceService {
             return 100.0; // Default
         }
         
+        return expForLevel(category, level);
+    }
+
+    /**
+     * EXP required for a level, from the category's precomputed table when the level is within max_level
+     */
+    private double expForLevel(LevelSystemCategory category, int level) {
+        ExpCurveTable table = categoryService.getExpTable(category.getId());
+        if (table != null && level >= 1 && level <= table.getMaxLevel()) {
+            return table.expForLevel(level);
+        }
         return category.getExpCurve().calculateExpForLevel(level);
     }
 
@@ -212,24 +255,29 @@ public class ExperienceService {
             return;
         }
         
-        PlayerLevelSystemData data = dataService.getPlayerData(playerId);
-        CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
-        
-        progress.setCurrentLevel(level);
-        progress.setCurrentExp(0);
-        progress.setExpForNextLevel(category.getExpCurve().calculateExpForLevel(level));
-        progress.setPendingLevelUps(0);
-        progress.setCanGainExp(true);
-        
-        dataService.savePlayerData(playerId, data);
-        
-        if (player != null) {
-            player.sendMessage(Message.join(
-                Message.raw("Level set to ").color(Color.GREEN),
-                Message.raw(String.valueOf(level)).color(Color.CYAN).bold(true),
-                Message.raw(" for category ").color(Color.GREEN),
-                Message.raw(categoryId).color(Color.YELLOW)
-            ));
+        ReentrantLock lock = dataService.lockPlayerData(playerId);
+        try {
+            PlayerLevelSystemData data = dataService.getPlayerData(playerId);
+            CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+            
+            progress.setCurrentLevel(level);
+            progress.setCurrentExp(0);
+            progress.setExpForNextLevel(expForLevel(category, level));
+            progress.setPendingLevelUps(0);
+            progress.setCanGainExp(true);
+            
+            dataService.markDirty(playerId, categoryId, PlayerDataMutation.ADMIN);
+            
+            if (player != null) {
+                player.sendMessage(Message.join(
+                    Message.raw("Level set to ").color(Color.GREEN),
+                    Message.raw(String.valueOf(level)).color(Color.CYAN).bold(true),
+                    Message.raw(" for category ").color(Color.GREEN),
+                    Message.raw(categoryId).color(Color.YELLOW)
+                ));
+            }
+        } finally {
+            lock.unlock();
         }
     }
 }
@@ -0,0 +1,243 @@
+package dev.seyon.leveling.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.LeaderboardEntry;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * File backend: one file per player in SeyonLevelSystem/playerdata, binary (&lt;uuid&gt;.dat, see
+ * {@link PlayerDataBinaryCodec}) or JSON (&lt;uuid&gt;.json). Files are replaced atomically via
+ * {@link AtomicFileWriter}, optionally with group-commit fsync.
+ * Scans and top-N queries read every file, so prefer {@link JdbcPlayerDataStorage} for large servers.
+ */
+public class FilePlayerDataStorage implements PlayerDataStorage {
+
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".dat";
+
+    private final HytaleLogger logger;
+    private final Gson gson;
+    private final File dataRoot;
+    private final boolean binaryFormat;
+    private final AtomicFileWriter fileWriter;
+
+    /**
+     * @param binaryFormat   write {@link PlayerDataBinaryCodec} files instead of JSON (both are read)
+     * @param groupCommit    fsync saves in batches, see {@link AtomicFileWriter}
+     * @param fsyncWindowMs  length of one group-commit window
+     */
+    public FilePlayerDataStorage(HytaleLogger logger, File dataRoot, boolean binaryFormat, boolean groupCommit, long fsyncWindowMs) {
+        this.logger = logger;
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.dataRoot = dataRoot;
+        this.binaryFormat = binaryFormat;
+
+        if (!dataRoot.exists()) {
+            dataRoot.mkdirs();
+        }
+
+        this.fileWriter = new AtomicFileWriter(logger, groupCommit, fsyncWindowMs);
+        this.fileWriter.cleanupTempFiles(dataRoot.toPath());
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    /**
+     * Player file for the given format: &lt;uuid&gt;.dat (binary) or &lt;uuid&gt;.json.
+     */
+    private File playerFile(UUID playerId, boolean binary) {
+        return new File(dataRoot, playerId.toString() + (binary ? BINARY_EXTENSION : JSON_EXTENSION));
+    }
+
+    /**
+     * Reads the configured format first and falls back to the other one; a file in the other format
+     * is migrated (rewritten in the configured format, old file removed). An unreadable file is moved
+     * aside and treated as missing.
+     */
+    @Override
+    public PlayerLevelSystemData load(UUID playerId) {
+        File preferred = playerFile(playerId, binaryFormat);
+        File other = playerFile(playerId, !binaryFormat);
+        // A save for this player may still be waiting for the group-commit window
+        fileWriter.commitPending(preferred.toPath());
+        fileWriter.commitPending(other.toPath());
+
+        File playerFile = preferred.exists() ? preferred : other;
+        if (!playerFile.exists()) {
+            return null;
+        }
+        
+        try {
+            PlayerLevelSystemData data = decode(Files.readAllBytes(playerFile.toPath()));
+            if (data != null) {
+                data.setPlayerId(playerId); // Ensure UUID is set
+                if (playerFile == other) {
+                    migrate(data, other);
+                }
+                return data;
+            }
+            logger.at(Level.SEVERE).log("Player data file is empty: " + playerFile.getName());
+        } catch (Exception e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to load player data for: " + playerId);
+        }
+        
+        // Keep the unreadable file instead of overwriting it with fresh level-1 data on the next save
+        quarantine(playerFile);
+        return null;
+    }
+
+    /**
+     * Decode a player file; binary and JSON are told apart by the binary header.
+     */
+    private PlayerLevelSystemData decode(byte[] bytes) throws IOException {
+        if (PlayerDataBinaryCodec.isBinary(bytes)) {
+            return PlayerDataBinaryCodec.decode(bytes);
+        }
+        return gson.fromJson(new String(bytes, StandardCharsets.UTF_8), PlayerLevelSystemData.class);
+    }
+
+    private byte[] encode(PlayerLevelSystemData data) throws IOException {
+        if (binaryFormat) {
+            return PlayerDataBinaryCodec.encode(data);
+        }
+        return gson.toJson(data).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rewrite a player loaded from the other format in the configured one, then remove the old file.
+     */
+    private void migrate(PlayerLevelSystemData data, File oldFile) throws IOException {
+        save(data);
+        // The new file must be in place before the old one goes away
+        fileWriter.commitPending(playerFile(data.getPlayerId(), binaryFormat).toPath());
+        try {
+            Files.deleteIfExists(oldFile.toPath());
+            logger.at(Level.FINE).log("Migrated player data to " + (binaryFormat ? "binary" : "JSON") + ": " + data.getPlayerId());
+        } catch (IOException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to remove migrated player data file: " + oldFile.getName());
+        }
+    }
+
+    /**
+     * Move an unreadable player file aside (&lt;file&gt;.corrupt-&lt;timestamp&gt;) for manual recovery.
+     */
+    private void quarantine(File playerFile) {
+        Path source = playerFile.toPath();
+        Path target = source.resolveSibling(playerFile.getName() + ".corrupt-" + System.currentTimeMillis());
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            logger.at(Level.SEVERE).log("Moved unreadable player data to " + target.getFileName());
+        } catch (IOException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to move unreadable player data: " + playerFile.getName());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> save(PlayerLevelSystemData data) throws IOException {
+        return fileWriter.write(playerFile(data.getPlayerId(), binaryFormat).toPath(), encode(data));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveBatch(Collection<PlayerLevelSystemData> batch) throws IOException {
+        // With group commit the whole batch shares the next commit window
+        List<CompletableFuture<Void>> writes = new ArrayList<>(batch.size());
+        for (PlayerLevelSystemData data : batch) {
+            writes.add(save(data));
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+    }
+
+    @Override
+    public void delete(UUID playerId) throws IOException {
+        for (boolean binary : new boolean[] {true, false}) {
+            Path path = playerFile(playerId, binary).toPath();
+            fileWriter.commitPending(path);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Override
+    public void scan(Consumer<UUID> consumer) {
+        String[] names = dataRoot.list();
+        if (names == null) {
+            return;
+        }
+        Set<UUID> seen = new LinkedHashSet<>();
+        for (String name : names) {
+            int end = name.endsWith(BINARY_EXTENSION) ? name.length() - BINARY_EXTENSION.length()
+                : name.endsWith(JSON_EXTENSION) ? name.length() - JSON_EXTENSION.length() : -1;
+            if (end < 0) {
+                continue;
+            }
+            try {
+                UUID playerId = UUID.fromString(name.substring(0, end));
+                if (seen.add(playerId)) {
+                    consumer.accept(playerId);
+                }
+            } catch (IllegalArgumentException ignored) {
+                // Not a player file
+            }
+        }
+    }
+
+    /**
+     * Reads every player file; fine for small servers, O(players) I/O per call.
+     */
+    @Override
+    public List<LeaderboardEntry> topByLevel(String categoryId, int limit) {
+        Comparator<LeaderboardEntry> order = Comparator.comparingInt(LeaderboardEntry::getLevel)
+            .thenComparingDouble(LeaderboardEntry::getExp);
+        PriorityQueue<LeaderboardEntry> top = new PriorityQueue<>(order);
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        scan(playerId -> {
+            PlayerLevelSystemData data = load(playerId);
+            CategoryProgress progress = data != null ? data.getCategoryProgress().get(categoryId) : null;
+            if (progress == null) {
+                return;
+            }
+            top.add(new LeaderboardEntry(playerId, categoryId, progress.getCurrentLevel(), progress.getCurrentExp()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<LeaderboardEntry> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    @Override
+    public void flush() {
+        fileWriter.commitAll();
+    }
+
+    @Override
+    public void close() {
+        fileWriter.shutdown();
+    }
+}
@@ -0,0 +1,424 @@
+package dev.seyon.leveling.service;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.LeaderboardEntry;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+import dev.seyon.leveling.model.VisitedChunkSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Embedded SQLite backend (WAL mode, single local database file).
+ * <p>
+ * Schema: {@code player(uuid, journal_sequence)} and one {@code player_category} row per player and
+ * category. Progress columns are indexed by (category_id, level, exp) for top-N queries; skills and
+ * completed quests are stored as small JSON columns. Saves are upserts, a batch is one transaction.
+ * The connection is shared and guarded by this object's monitor (SQLite has a single writer anyway).
+ */
+public class JdbcPlayerDataStorage implements PlayerDataStorage {
+
+    /** SQLite JDBC driver (org.xerial:sqlite-jdbc), bundled in the plugin jar */
+    public static final String DRIVER_CLASS = "org.sqlite.JDBC";
+
+    private static final Type SKILLS_TYPE = new TypeToken<Map<String, Integer>>() {}.getType();
+    private static final Type QUESTS_TYPE = new TypeToken<Set<Integer>>() {}.getType();
+
+    private static final String UPSERT_PLAYER =
+        "INSERT INTO player (uuid, journal_sequence) VALUES (?, ?) "
+        + "ON CONFLICT(uuid) DO UPDATE SET journal_sequence = excluded.journal_sequence";
+    private static final String UPSERT_CATEGORY =
+        "INSERT INTO player_category (uuid, category_id, level, exp, exp_next, can_gain_exp, pending_level_ups, skill_points, skills, quests) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+        + "ON CONFLICT(uuid, category_id) DO UPDATE SET level = excluded.level, exp = excluded.exp, exp_next = excluded.exp_next, "
+        + "can_gain_exp = excluded.can_gain_exp, pending_level_ups = excluded.pending_level_ups, "
+        + "skill_points = excluded.skill_points, skills = excluded.skills, quests = excluded.quests";
+    private static final String UPSERT_VISITED_CHUNKS =
+        "INSERT INTO player_visited_chunks (uuid, world, chunks) VALUES (?, ?, ?) "
+        + "ON CONFLICT(uuid, world) DO UPDATE SET chunks = excluded.chunks";
+    private static final String DELETE_VISITED_CHUNKS = "DELETE FROM player_visited_chunks WHERE uuid = ?";
+
+    private final HytaleLogger logger;
+    private final Gson gson;
+    private final File databaseFile;
+    private Connection connection;
+
+    public JdbcPlayerDataStorage(HytaleLogger logger, File databaseFile) throws IOException {
+        this.logger = logger;
+        this.gson = new Gson();
+        this.databaseFile = databaseFile;
+
+        File parent = databaseFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try {
+            Class.forName(DRIVER_CLASS);
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getPath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                // NORMAL is crash-consistent in WAL mode; flush() checkpoints for durability
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=5000");
+                statement.execute("CREATE TABLE IF NOT EXISTS player ("
+                    + "uuid TEXT PRIMARY KEY, journal_sequence INTEGER NOT NULL DEFAULT 0)");
+                statement.execute("CREATE TABLE IF NOT EXISTS player_category ("
+                    + "uuid TEXT NOT NULL, category_id TEXT NOT NULL, "
+                    + "level INTEGER, exp REAL, exp_next REAL, can_gain_exp INTEGER, pending_level_ups INTEGER, "
+                    + "skill_points INTEGER, skills TEXT, quests TEXT, "
+                    + "PRIMARY KEY (uuid, category_id))");
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_player_category_level "
+                    + "ON player_category (category_id, level DESC, exp DESC)");
+                statement.execute("CREATE TABLE IF NOT EXISTS player_visited_chunks ("
+                    + "uuid TEXT NOT NULL, world TEXT NOT NULL, chunks BLOB NOT NULL, "
+                    + "PRIMARY KEY (uuid, world))");
+            }
+            connection.setAutoCommit(false);
+            connection.commit();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite JDBC driver not found (" + DRIVER_CLASS + ")", e);
+        } catch (SQLException e) {
+            close();
+            throw new IOException("Failed to open player database " + databaseFile.getPath(), e);
+        }
+        logger.at(Level.INFO).log("Player data stored in SQLite database " + databaseFile.getPath());
+    }
+
+    /**
+     * True if the SQLite driver is on the classpath.
+     */
+    public static boolean isDriverAvailable() {
+        try {
+            Class.forName(DRIVER_CLASS);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    @Override
+    public synchronized PlayerLevelSystemData load(UUID playerId) throws IOException {
+        String uuid = playerId.toString();
+        try {
+            PlayerLevelSystemData data;
+            try (PreparedStatement select = connection.prepareStatement("SELECT journal_sequence FROM player WHERE uuid = ?")) {
+                select.setString(1, uuid);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    data = new PlayerLevelSystemData(playerId);
+                    data.setJournalSequence(rs.getLong(1));
+                }
+            }
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT category_id, level, exp, exp_next, can_gain_exp, pending_level_ups, skill_points, skills, quests "
+                    + "FROM player_category WHERE uuid = ?")) {
+                select.setString(1, uuid);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        readCategory(rs, data);
+                    }
+                }
+            }
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT world, chunks FROM player_visited_chunks WHERE uuid = ? ORDER BY rowid")) {
+                select.setString(1, uuid);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        data.getVisitedChunks().put(rs.getString(1), VisitedChunkSet.fromBytes(rs.getBytes(2)));
+                    }
+                }
+            }
+            connection.commit();
+            return data;
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Failed to load player data for " + playerId, e);
+        } catch (IOException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    private void readCategory(ResultSet rs, PlayerLevelSystemData data) throws SQLException {
+        String categoryId = rs.getString(1);
+        int level = rs.getInt(2);
+        if (!rs.wasNull()) {
+            CategoryProgress progress = new CategoryProgress(categoryId);
+            progress.setCurrentLevel(level);
+            progress.setCurrentExp(rs.getDouble(3));
+            progress.setExpForNextLevel(rs.getDouble(4));
+            progress.setCanGainExp(rs.getInt(5) != 0);
+            progress.setPendingLevelUps(rs.getInt(6));
+            data.getCategoryProgress().put(categoryId, progress);
+        }
+        int skillPoints = rs.getInt(7);
+        if (!rs.wasNull()) {
+            data.getAvailableSkillPoints().put(categoryId, skillPoints);
+        }
+        String skills = rs.getString(8);
+        if (skills != null) {
+            Map<String, Integer> parsed = gson.fromJson(skills, SKILLS_TYPE);
+            data.getActiveSkills().put(categoryId, parsed != null ? new HashMap<>(parsed) : new HashMap<>());
+        }
+        String quests = rs.getString(9);
+        if (quests != null) {
+            Set<Integer> parsed = gson.fromJson(quests, QUESTS_TYPE);
+            data.getCompletedQuests().put(categoryId, parsed != null ? new HashSet<>(parsed) : new HashSet<>());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> save(PlayerLevelSystemData data) throws IOException {
+        return saveBatch(List.of(data));
+    }
+
+    /**
+     * Upserts the player row and the changed category rows only, plus the visited chunks if they changed.
+     */
+    @Override
+    public boolean supportsDelta() {
+        return true;
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> saveDelta(PlayerLevelSystemData data, Set<String> categoryIds) throws IOException {
+        try (PreparedStatement player = connection.prepareStatement(UPSERT_PLAYER);
+             PreparedStatement category = connection.prepareStatement(UPSERT_CATEGORY);
+             PreparedStatement clearChunks = connection.prepareStatement(DELETE_VISITED_CHUNKS);
+             PreparedStatement chunks = connection.prepareStatement(UPSERT_VISITED_CHUNKS)) {
+            String uuid = data.getPlayerId().toString();
+            player.setString(1, uuid);
+            player.setLong(2, data.getJournalSequence());
+            player.executeUpdate();
+            for (String categoryId : categoryIds) {
+                bindCategory(category, uuid, categoryId, data);
+                category.addBatch();
+            }
+            category.executeBatch();
+            if (data.isVisitedChunksDirty()) {
+                bindVisitedChunks(clearChunks, chunks, uuid, data);
+                clearChunks.executeBatch();
+                chunks.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Failed to save changed categories for " + data.getPlayerId(), e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> saveBatch(Collection<PlayerLevelSystemData> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try (PreparedStatement player = connection.prepareStatement(UPSERT_PLAYER);
+             PreparedStatement category = connection.prepareStatement(UPSERT_CATEGORY);
+             PreparedStatement clearChunks = connection.prepareStatement(DELETE_VISITED_CHUNKS);
+             PreparedStatement chunks = connection.prepareStatement(UPSERT_VISITED_CHUNKS)) {
+            for (PlayerLevelSystemData data : batch) {
+                String uuid = data.getPlayerId().toString();
+                player.setString(1, uuid);
+                player.setLong(2, data.getJournalSequence());
+                player.addBatch();
+                for (String categoryId : categoryIds(data)) {
+                    bindCategory(category, uuid, categoryId, data);
+                    category.addBatch();
+                }
+                bindVisitedChunks(clearChunks, chunks, uuid, data);
+            }
+            player.executeBatch();
+            category.executeBatch();
+            clearChunks.executeBatch();
+            chunks.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Failed to save " + batch.size() + " player(s)", e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Union of the category IDs of all four maps (normally in sync, but need not be).
+     */
+    private static Set<String> categoryIds(PlayerLevelSystemData data) {
+        Set<String> categoryIds = new LinkedHashSet<>(data.getCategoryProgress().keySet());
+        categoryIds.addAll(data.getAvailableSkillPoints().keySet());
+        categoryIds.addAll(data.getActiveSkills().keySet());
+        categoryIds.addAll(data.getCompletedQuests().keySet());
+        return categoryIds;
+    }
+
+    private void bindCategory(PreparedStatement statement, String uuid, String categoryId, PlayerLevelSystemData data) throws SQLException {
+        statement.setString(1, uuid);
+        statement.setString(2, categoryId);
+        CategoryProgress progress = data.getCategoryProgress().get(categoryId);
+        if (progress != null) {
+            statement.setInt(3, progress.getCurrentLevel());
+            statement.setDouble(4, progress.getCurrentExp());
+            statement.setDouble(5, progress.getExpForNextLevel());
+            statement.setInt(6, progress.isCanGainExp() ? 1 : 0);
+            statement.setInt(7, progress.getPendingLevelUps());
+        } else {
+            for (int i = 3; i <= 7; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+        }
+        Integer skillPoints = data.getAvailableSkillPoints().get(categoryId);
+        if (skillPoints != null) {
+            statement.setInt(8, skillPoints);
+        } else {
+            statement.setNull(8, Types.INTEGER);
+        }
+        Map<String, Integer> skills = data.getActiveSkills().get(categoryId);
+        statement.setString(9, skills != null ? gson.toJson(skills) : null);
+        Set<Integer> quests = data.getCompletedQuests().get(categoryId);
+        statement.setString(10, quests != null ? gson.toJson(quests) : null);
+    }
+
+    /**
+     * Add a delete of the player's worlds and one upsert per world to the batches, so worlds dropped
+     * from the player's data are dropped here too. Rows are inserted least recently visited first, which
+     * {@link #load} restores by rowid.
+     */
+    private static void bindVisitedChunks(PreparedStatement clear, PreparedStatement statement, String uuid,
+                                          PlayerLevelSystemData data) throws SQLException {
+        clear.setString(1, uuid);
+        clear.addBatch();
+        for (Map.Entry<String, VisitedChunkSet> world : data.getVisitedChunks().entrySet()) {
+            statement.setString(1, uuid);
+            statement.setString(2, world.getKey());
+            statement.setBytes(3, world.getValue().toBytes());
+            statement.addBatch();
+        }
+    }
+
+    @Override
+    public synchronized void delete(UUID playerId) throws IOException {
+        try (PreparedStatement categories = connection.prepareStatement("DELETE FROM player_category WHERE uuid = ?");
+             PreparedStatement chunks = connection.prepareStatement(DELETE_VISITED_CHUNKS);
+             PreparedStatement player = connection.prepareStatement("DELETE FROM player WHERE uuid = ?")) {
+            categories.setString(1, playerId.toString());
+            categories.executeUpdate();
+            chunks.setString(1, playerId.toString());
+            chunks.executeUpdate();
+            player.setString(1, playerId.toString());
+            player.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Failed to delete player data for " + playerId, e);
+        }
+    }
+
+    @Override
+    public void scan(Consumer<UUID> consumer) throws IOException {
+        // Collect first so the consumer may call back into this storage
+        List<UUID> players = new ArrayList<>();
+        synchronized (this) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT uuid FROM player")) {
+                while (rs.next()) {
+                    players.add(UUID.fromString(rs.getString(1)));
+                }
+                connection.commit();
+            } catch (SQLException | IllegalArgumentException e) {
+                rollback();
+                throw new IOException("Failed to scan player database", e);
+            }
+        }
+        players.forEach(consumer);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> topByLevel(String categoryId, int limit) throws IOException {
+        List<LeaderboardEntry> result = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT uuid, level, exp FROM player_category WHERE category_id = ? AND level IS NOT NULL "
+                + "ORDER BY level DESC, exp DESC LIMIT ?")) {
+            select.setString(1, categoryId);
+            select.setInt(2, Math.max(0, limit));
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new LeaderboardEntry(UUID.fromString(rs.getString(1)), categoryId, rs.getInt(2), rs.getDouble(3)));
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            throw new IOException("Failed to query top players for " + categoryId, e);
+        }
+        return result;
+    }
+
+    /**
+     * Commits are crash-consistent already; a checkpoint also syncs the WAL so they survive power loss.
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            // Checkpoints must run outside a transaction
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA wal_checkpoint(PASSIVE)");
+            } finally {
+                connection.setAutoCommit(false);
+            }
+        } catch (SQLException e) {
+            logger.at(Level.WARNING).withCause(e).log("SQLite checkpoint failed");
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.at(Level.WARNING).withCause(e).log("Failed to close player database " + databaseFile.getPath());
+        }
+        connection = null;
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.at(Level.WARNING).withCause(e).log("SQLite rollback failed");
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package dev.seyon.leveling.service;
 
 import dev.seyon.leveling.config.LevelBonusConfig;
-import dev.seyon.leveling.config.LevelSystemCategory;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -67,7 +66,7 @@ public class LevelEffectsDisplayHelper {
      * @param level The level to get bonuses for
      * @return Map of modifier_id -> value for this level only
      */
-    public static Map<String, Double> getLevelBonusAtLevel(LevelSystemCategory category, int level) {
+    public static Map<String, Double> getLevelBonusAtLevel(CompiledCategory category, int level) {
         Map<String, Double> modifiers = new HashMap<>();
         
         if (category == null || level < 1) {
@@ -89,22 +88,15 @@ public class LevelEffectsDisplayHelper {
      * @param level The level to sum bonuses up to
      * @return Map of modifier_id -> cumulative value
      */
-    public static Map<String, Double> getCumulativeLevelBonusesUpTo(LevelSystemCategory category, int level) {
+    public static Map<String, Double> getCumulativeLevelBonusesUpTo(CompiledCategory category, int level) {
         Map<String, Double> modifiers = new HashMap<>();
         
         if (category == null || level < 1) {
             return modifiers;
         }
         
-        // Sum up all level bonuses from 1 to level
-        for (int i = 1; i <= level; i++) {
-            LevelBonusConfig bonus = category.getLevelBonus(i);
-            if (bonus != null && bonus.getModifiers() != null) {
-                for (Map.Entry<String, Double> entry : bonus.getModifiers().entrySet()) {
-                    modifiers.merge(entry.getKey(), entry.getValue(), Double::sum);
-                }
-            }
-        }
+        // Running total from 1 to level, precomputed per category
+        modifiers.putAll(category.getCumulativeLevelBonuses(level));
         
         return modifiers;
     }
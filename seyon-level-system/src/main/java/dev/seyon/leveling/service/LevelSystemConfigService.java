@@ -44,6 +44,8 @@ public class LevelSystemConfigService {
 
     /**
      * Load: merge Java defaults with files (file wins), apply farming overrides, then save merged configs.
+     * The loaded configuration replaces the current one only if it is valid (see {@link #validate}).
+     * @throws IllegalStateException if a config file is invalid; nothing is changed or saved then
      */
     public void load() {
         logger.at(Level.INFO).log("LevelSystemConfigService: Loading configuration...");
@@ -55,11 +57,11 @@ public class LevelSystemConfigService {
         if (!actionsDir.exists()) actionsDir.mkdirs();
 
         // Main: default + merge from main.json
-        mainConfig = defaultProvider.getDefaultMainConfig();
+        LevelSystemMainConfig mainConfig = defaultProvider.getDefaultMainConfig();
         mergeFromFile(new File(configRoot, "main.json"), LevelSystemMainConfig.class, mainConfig, "main.json");
 
         // Categories: for each default, merge from file; then add custom category files not in defaults
-        categories.clear();
+        List<LevelSystemCategory> categories = new ArrayList<>();
         java.util.Set<String> defaultIds = new java.util.HashSet<>();
         for (LevelSystemCategory d : defaultProvider.getDefaultCategories()) {
             defaultIds.add(d.getId());
@@ -81,8 +83,10 @@ public class LevelSystemConfigService {
             }
         }
 
+        validate(categories);
+
         // Actions: for each default, merge from file; then add custom action files
-        actionConfigs.clear();
+        List<ActionConfig> actionConfigs = new ArrayList<>();
         java.util.Set<String> defaultActionCats = new java.util.HashSet<>();
         for (ActionConfig d : defaultProvider.getDefaultActionConfigs()) {
             defaultActionCats.add(d.getCategory());
@@ -105,9 +109,14 @@ public class LevelSystemConfigService {
         }
 
         // Farming harvest overrides: default (empty) + merge from farming_harvest.json
-        farmingHarvestOverrideConfig = defaultProvider.getDefaultFarmingHarvestOverrides();
+        FarmingHarvestOverrideConfig farmingHarvestOverrideConfig = defaultProvider.getDefaultFarmingHarvestOverrides();
         mergeFromFile(new File(configRoot, "farming_harvest.json"), FarmingHarvestOverrideConfig.class, farmingHarvestOverrideConfig, "farming_harvest.json");
 
+        this.mainConfig = mainConfig;
+        this.categories = categories;
+        this.actionConfigs = actionConfigs;
+        this.farmingHarvestOverrideConfig = farmingHarvestOverrideConfig;
+
         // Apply overrides onto farming ActionConfig (in-memory)
         applyFarmingHarvestOverrides();
 
@@ -116,6 +125,22 @@ public class LevelSystemConfigService {
         logger.at(Level.INFO).log("LevelSystemConfigService: Configuration loaded and saved");
     }
 
+    /**
+     * Reject categories whose EXP curve cannot be used (e.g. a custom formula that does not compile)
+     */
+    private void validate(List<LevelSystemCategory> loaded) {
+        for (LevelSystemCategory category : loaded) {
+            if (category.getExpCurve() == null) {
+                continue;
+            }
+            try {
+                category.getExpCurve().validate();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid exp_curve in categories/" + category.getId() + ".json: " + e.getMessage(), e);
+            }
+        }
+    }
+
     private <T> void mergeFromFile(File file, Class<T> clazz, T target, String logName) {
         T loaded = readFile(file, clazz);
         if (loaded == null) return;
@@ -194,6 +219,7 @@ public class LevelSystemConfigService {
 
     /**
      * Reload configuration from disk
+     * @throws IllegalStateException if a config file is invalid; the current configuration is kept then
      */
     public void reload() {
         logger.at(Level.INFO).log("LevelSystemConfigService: Reloading configuration...");
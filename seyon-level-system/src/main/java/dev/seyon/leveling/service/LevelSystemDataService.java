@@ -3,137 +3,1034 @@ package dev.seyon.leveling.service;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.config.LevelSystemMainConfig;
+import dev.seyon.leveling.model.LeaderboardEntry;
+import dev.seyon.leveling.model.PlayerDataMutation;
 import dev.seyon.leveling.model.PlayerLevelSystemData;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 /**
  * Service for managing player Level System data
- * Handles persistence via file storage
+ * Handles persistence via a {@link PlayerDataStorage} backend (player files or an embedded SQLite
+ * database). With write-behind enabled, mutations only mark the player dirty and
+ * {@link PlayerDataFlusher} writes them in the background. With the journal enabled, category
+ * mutations are appended to {@link PlayerDataJournal} instead and folded into the stored snapshots
+ * by a periodic compaction.
+ * <p>
+ * Threading: the cache is concurrent, and every mutation of one player's data runs under that
+ * player's lock ({@link #getPlayerLock(UUID)}). Saves serialize a copy taken under the same lock,
+ * so a save never sees a half-applied change and never blocks the world thread on I/O. Copies are
+ * written in the order they were taken ({@link PlayerWriteOrder}), whichever thread writes them.
+ * <p>
+ * Caching: online players ({@link #pinPlayer(UUID)}) stay resident until they disconnect. Data
+ * loaded for offline players (API or command lookups) is tracked by {@link OfflinePlayerCache}
+ * and saved and dropped when it falls out of the LRU or its TTL expires.
  */
 public class LevelSystemDataService {
 
+    /** Players per transaction when moving player files into the database */
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    private static final int LOCK_STRIPES = 64;
+    /** Players per batch when saving everything in parallel */
+    private static final int SAVE_CHUNK_SIZE = 256;
+
     private final HytaleLogger logger;
     private final Gson gson;
     private final File dataRoot;
+    private final File databaseFile;
     private final Map<UUID, PlayerLevelSystemData> playerDataCache;
+    private final PlayerLockStripes playerLocks = new PlayerLockStripes(LOCK_STRIPES);
+    private final PlayerWriteOrder writeOrder = new PlayerWriteOrder();
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    private OfflinePlayerCache offlineCache;
+    private ScheduledExecutorService cacheSweeper;
+    private ScheduledExecutorService autosaver;
+    private long autosaveIntervalMs;
+    private int shutdownSaveThreads = 4;
+    private long shutdownSaveTimeoutMs = 30000;
+    /** Virtual-thread executor for loads started on connect, before the player is ready */
+    private final ExecutorService prefetchExecutor;
+    /** Loads in progress, shared by concurrent getPlayerData callers */
+    private final Map<UUID, CompletableFuture<PlayerLevelSystemData>> pendingLoads = new ConcurrentHashMap<>();
+    private final List<PlayerDataListener> listeners = new CopyOnWriteArrayList<>();
+    private PlayerDataFlusher flusher;
+    private PlayerDataStorage storage;
+    private final File journalRoot;
+    private PlayerDataJournal journal;
+    private ScheduledExecutorService compactor;
 
     public LevelSystemDataService(HytaleLogger logger) {
         this.logger = logger;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.dataRoot = new File("SeyonLevelSystem/playerdata");
-        this.playerDataCache = new HashMap<>();
-        
-        // Create data directory
-        if (!dataRoot.exists()) {
-            dataRoot.mkdirs();
+        this.databaseFile = new File("SeyonLevelSystem/playerdata.db");
+        this.journalRoot = new File("SeyonLevelSystem/journal");
+        this.playerDataCache = new ConcurrentHashMap<>();
+        this.storage = new FilePlayerDataStorage(logger, dataRoot, false, false, 0);
+        this.offlineCache = new OfflinePlayerCache(1000, 600000);
+        this.prefetchExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("SeyonLevelSystem-Prefetch-", 0).factory());
+    }
+
+    /**
+     * Register a listener for changed and unloaded player data
+     */
+    public void addListener(PlayerDataListener listener) {
+        listeners.add(listener);
+    }
+
+    private void fireChanged(UUID playerId, String categoryId, PlayerDataMutation mutation) {
+        for (PlayerDataListener listener : listeners) {
+            try {
+                listener.onPlayerDataChanged(playerId, categoryId, mutation);
+            } catch (Exception e) {
+                logger.at(Level.WARNING).withCause(e).log("Player data listener failed for: " + playerId);
+            }
+        }
+    }
+
+    private void fireUnloaded(UUID playerId) {
+        for (PlayerDataListener listener : listeners) {
+            try {
+                listener.onPlayerDataUnloaded(playerId);
+            } catch (Exception e) {
+                logger.at(Level.WARNING).withCause(e).log("Player data listener failed for: " + playerId);
+            }
+        }
+    }
+
+    /**
+     * Apply persistence settings (call after config load). Opens the storage backend, replays a journal
+     * left over from a crash, then starts the write-behind flusher and the journal if enabled.
+     */
+    public void start(LevelSystemMainConfig.PersistenceSettings settings) {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher = null;
+        }
+        PlayerDataStorage previous = storage;
+        storage = openStorage(settings);
+        previous.close();
+        if (settings != null) {
+            offlineCache = new OfflinePlayerCache(settings.getOfflineCacheMaxPlayers(), settings.getOfflineCacheTtlMs());
+            shutdownSaveThreads = settings.getShutdownSaveThreads();
+            shutdownSaveTimeoutMs = settings.getShutdownSaveTimeoutMs();
+            autosaveIntervalMs = settings.getAutosaveIntervalMs();
+        }
+        startCacheSweeper();
+        startAutosave();
+        if (settings != null && settings.isWriteBehindEnabled()) {
+            flusher = new PlayerDataFlusher(logger, this::flushPlayerData, settings.getFlushIntervalMs(), settings.getMaxPendingWrites());
+            flusher.start();
+        }
+
+        int shards = settings != null ? settings.getJournalShards() : 1;
+        long sequence = 0;
+        if (journalRoot.exists()) {
+            // Records from a previous run (crash) must be folded into snapshots, even if the journal is now disabled
+            sequence = recoverJournal(new PlayerDataJournal(logger, journalRoot, shards));
+        }
+        if (settings != null && settings.isJournalEnabled()) {
+            startJournal(shards, settings.getJournalCompactionIntervalMs(), settings.getJournalFsyncIntervalMs(), sequence);
+        }
+    }
+
+    private void startCacheSweeper() {
+        if (cacheSweeper != null) {
+            cacheSweeper.shutdownNow();
+        }
+        long interval = Math.max(1000, Math.min(60000, offlineCache.getTtlMs()));
+        cacheSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-CacheSweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        cacheSweeper.scheduleWithFixedDelay(this::evictOfflinePlayersSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void startAutosave() {
+        if (autosaver != null) {
+            autosaver.shutdownNow();
+            autosaver = null;
+        }
+        if (autosaveIntervalMs <= 0) {
+            return;
+        }
+        autosaver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-Autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleAutosave();
+    }
+
+    /**
+     * Schedule the next autosave with up to 10% jitter, so servers restarted together do not save in lockstep.
+     */
+    private void scheduleAutosave() {
+        ScheduledExecutorService current = autosaver;
+        if (current == null || current.isShutdown()) {
+            return;
+        }
+        long jitter = autosaveIntervalMs / 10;
+        long delay = Math.max(1000, autosaveIntervalMs + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0));
+        try {
+            current.schedule(this::autosave, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Save every cached player that has unsaved changes (e.g. after a failed save). Clean players are skipped.
+     */
+    private void autosave() {
+        try {
+            long start = System.nanoTime();
+            int saved = 0;
+            for (Map.Entry<UUID, PlayerLevelSystemData> entry : playerDataCache.entrySet()) {
+                if (entry.getValue().isDirty()) {
+                    flushPlayerData(entry.getKey());
+                    saved++;
+                }
+            }
+            if (saved > 0) {
+                logger.at(Level.FINE).log("Autosave wrote " + saved + " player(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Autosave failed");
+        } finally {
+            scheduleAutosave();
+        }
+    }
+
+    /**
+     * Open the configured backend. Falls back to player files if the database cannot be opened.
+     */
+    private PlayerDataStorage openStorage(LevelSystemMainConfig.PersistenceSettings settings) {
+        boolean binary = settings != null && settings.isBinaryFormat();
+        boolean groupCommit = settings != null && settings.isGroupCommitFsync();
+        long fsyncWindowMs = settings != null ? settings.getFsyncWindowMs() : 0;
+
+        if (settings != null && settings.isSqliteBackend()) {
+            if (!JdbcPlayerDataStorage.isDriverAvailable()) {
+                logger.at(Level.SEVERE).log("storage_backend is sqlite but the SQLite driver is missing, using player files");
+            } else {
+                try {
+                    JdbcPlayerDataStorage database = new JdbcPlayerDataStorage(logger, databaseFile);
+                    migrateFiles(database);
+                    return database;
+                } catch (IOException e) {
+                    logger.at(Level.SEVERE).withCause(e).log("Failed to open player database, using player files");
+                }
+            }
+        }
+        return new FilePlayerDataStorage(logger, dataRoot, binary, groupCommit, fsyncWindowMs);
+    }
+
+    /**
+     * One-time move of existing player files into the database (in batches, files removed afterwards).
+     */
+    private void migrateFiles(PlayerDataStorage target) throws IOException {
+        String[] names = dataRoot.list();
+        if (names == null || names.length == 0) {
+            return;
+        }
+        FilePlayerDataStorage files = new FilePlayerDataStorage(logger, dataRoot, false, false, 0);
+        List<UUID> migrated = new ArrayList<>();
+        List<PlayerLevelSystemData> batch = new ArrayList<>(MIGRATION_BATCH_SIZE);
+        try {
+            List<UUID> players = new ArrayList<>();
+            files.scan(players::add);
+            for (UUID playerId : players) {
+                PlayerLevelSystemData data = files.load(playerId);
+                if (data == null) {
+                    continue;
+                }
+                batch.add(data);
+                migrated.add(playerId);
+                if (batch.size() >= MIGRATION_BATCH_SIZE) {
+                    target.saveBatch(batch);
+                    batch.clear();
+                }
+            }
+            target.saveBatch(batch);
+            target.flush();
+            // Only delete once everything is in the database
+            for (UUID playerId : migrated) {
+                files.delete(playerId);
+            }
+        } finally {
+            files.close();
+        }
+        if (!migrated.isEmpty()) {
+            logger.at(Level.INFO).log("Migrated " + migrated.size() + " player file(s) into " + databaseFile.getPath());
+        }
+    }
+
+    /**
+     * Replay all journal segments on top of the last snapshots, save the snapshots and delete the segments.
+     * @return highest sequence number seen (new records must continue after it)
+     */
+    private long recoverJournal(PlayerDataJournal recovered) {
+        PlayerDataJournal.Contents contents = recovered.readAll();
+        Map<UUID, List<PlayerDataJournal.Record>> records = contents.getRecords();
+        List<CompletableFuture<Void>> saves = new ArrayList<>(records.size());
+        for (Map.Entry<UUID, List<PlayerDataJournal.Record>> entry : records.entrySet()) {
+            PlayerLevelSystemData data = loadPlayerData(entry.getKey());
+            for (PlayerDataJournal.Record record : entry.getValue()) {
+                record.applyTo(data);
+            }
+            saves.add(write(entry.getKey(), snapshot(entry.getKey(), data, null)));
+        }
+        // Snapshots must be durable before the records are dropped
+        storage.flush();
+        if (!awaitDurable(saves)) {
+            logger.at(Level.SEVERE).log("Keeping the journal for replay on next start (snapshots could not be saved)");
+            return recovered.currentSequence();
+        }
+        recovered.delete(contents.getSegments());
+        if (!records.isEmpty()) {
+            logger.at(Level.INFO).log("Recovered " + records.size() + " player(s) from the journal");
+        }
+        return recovered.currentSequence();
+    }
+
+    private void startJournal(int shards, long compactionIntervalMs, long fsyncIntervalMs, long sequence) {
+        PlayerDataJournal opened = new PlayerDataJournal(logger, journalRoot, shards);
+        opened.observeSequence(sequence);
+        try {
+            opened.open(fsyncIntervalMs);
+        } catch (IOException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to open player data journal, falling back to snapshots");
+            opened.close();
+            return;
+        }
+        journal = opened;
+
+        long interval = Math.max(1000, compactionIntervalMs);
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-JournalCompactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactJournalSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fold the journal into snapshots: switch to new segments, write a snapshot for every cached player
+     * that has records in the old ones, then delete them. Players that are not cached already have a
+     * snapshot containing their records (it is written when they are unloaded).
+     */
+    public void compactJournal() {
+        PlayerDataJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        List<File> segments;
+        try {
+            segments = current.rotate();
+        } catch (IOException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to rotate player data journal");
+            return;
+        }
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        for (UUID playerId : current.read(segments).keySet()) {
+            Snapshot snapshot = snapshotCached(playerId);
+            if (snapshot != null) {
+                saves.add(write(playerId, snapshot));
+            }
+        }
+        storage.flush();
+        if (!awaitDurable(saves)) {
+            // Replayed on next start; the failed players are dirty and retried by autosave
+            logger.at(Level.SEVERE).log("Journal compaction could not save every snapshot, keeping " + segments.size() + " segment(s)");
+            return;
+        }
+        current.delete(segments);
+        logger.at(Level.FINE).log("Journal compaction wrote " + saves.size() + " snapshot(s)");
+    }
+
+    private void compactJournalSafely() {
+        try {
+            compactJournal();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Journal compaction failed");
+        }
+    }
+
+    /**
+     * Stop the flusher and journal and save all cached player data (call on plugin shutdown).
+     */
+    public void shutdown() {
+        prefetchExecutor.shutdown();
+        try {
+            if (!prefetchExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                prefetchExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            prefetchExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (cacheSweeper != null) {
+            cacheSweeper.shutdownNow();
+            cacheSweeper = null;
+        }
+        if (autosaver != null) {
+            autosaver.shutdownNow();
+            autosaver = null;
+        }
+        logger.at(Level.INFO).log("Offline player cache: " + offlineCache.getHits() + " hits, "
+            + offlineCache.getMisses() + " misses, " + offlineCache.getEvictions() + " evictions");
+        if (compactor != null) {
+            compactor.shutdownNow();
+            compactor = null;
+        }
+        if (flusher != null) {
+            // Everything pending is cached and written by saveAll below
+            flusher.stop();
+            flusher = null;
+        }
+        List<UUID> failed = saveAll();
+        storage.close();
+        if (journal != null) {
+            if (failed.isEmpty()) {
+                // Every cached player now has a snapshot, so the records are redundant. The fresh (empty)
+                // segments left by the rotation keep the sequence high-water mark for the next start.
+                try {
+                    journal.delete(journal.rotate());
+                } catch (IOException e) {
+                    logger.at(Level.WARNING).withCause(e).log("Failed to rotate journal on shutdown (will be replayed on next start)");
+                }
+            } else {
+                logger.at(Level.WARNING).log("Keeping the journal for replay on next start (" + failed.size() + " player(s) not saved)");
+            }
+            journal.close();
+            journal = null;
         }
     }
 
     /**
-     * Get player data (loads from cache or disk)
+     * Get player data (loads from cache or disk). Mutate the result only while holding
+     * {@link #getPlayerLock(UUID)}, see {@link #lockPlayerData(UUID)}.
      */
     public PlayerLevelSystemData getPlayerData(UUID playerId) {
-        // Check cache first
-        if (playerDataCache.containsKey(playerId)) {
-            return playerDataCache.get(playerId);
+        while (true) {
+            // Check cache first
+            PlayerLevelSystemData cached = playerDataCache.get(playerId);
+            if (cached != null) {
+                if (!onlinePlayers.contains(playerId)) {
+                    offlineCache.recordHit();
+                    offlineCache.touch(playerId, System.currentTimeMillis());
+                }
+                return cached;
+            }
+
+            // Load outside the player's lock (other players on the same stripe are not held up by the read);
+            // concurrent callers wait for one load and share its instance
+            CompletableFuture<PlayerLevelSystemData> load = new CompletableFuture<>();
+            CompletableFuture<PlayerLevelSystemData> inFlight = pendingLoads.putIfAbsent(playerId, load);
+            if (inFlight != null) {
+                PlayerLevelSystemData shared = inFlight.join();
+                if (playerDataCache.get(playerId) == shared) {
+                    return shared;
+                }
+                continue; // Unloaded again before this caller got to it
+            }
+            try {
+                PlayerLevelSystemData data = loadIntoCache(playerId);
+                load.complete(data);
+                return data;
+            } catch (RuntimeException | Error e) {
+                load.completeExceptionally(e);
+                throw e;
+            } finally {
+                pendingLoads.remove(playerId, load);
+            }
         }
-        
-        // Load from disk
+    }
+
+    /**
+     * Load a player that is not cached and add them to the cache (the cached instance wins if another
+     * path, e.g. an import, added the player meanwhile).
+     */
+    private PlayerLevelSystemData loadIntoCache(UUID playerId) {
+        PlayerLevelSystemData cached = playerDataCache.get(playerId);
+        if (cached != null) {
+            return cached; // Loaded by a previous caller that finished meanwhile
+        }
+        // An unload or eviction of this player may still be writing their last snapshot
+        writeOrder.awaitWrites(playerId);
         PlayerLevelSystemData data = loadPlayerData(playerId);
-        playerDataCache.put(playerId, data);
+        PlayerLevelSystemData existing = playerDataCache.putIfAbsent(playerId, data);
+        if (existing != null) {
+            return existing;
+        }
+        if (!onlinePlayers.contains(playerId)) {
+            offlineCache.recordMiss();
+            offlineCache.touch(playerId, System.currentTimeMillis());
+            ScheduledExecutorService sweeper = cacheSweeper;
+            if (sweeper != null) {
+                // Enforce the size bound off the caller's thread (eviction saves)
+                sweeper.execute(this::evictOfflinePlayersSafely);
+            }
+        }
         return data;
     }
 
     /**
-     * Load player data from disk
+     * Load a player's data if needed (outside the lock), then take the player's lock. Use this instead of
+     * locking {@link #getPlayerLock(UUID)} directly before a mutation, so the caller does not read from
+     * storage while holding a lock stripe; {@link #getPlayerData(UUID)} under the lock is then a cache hit.
+     * @return the player's lock, held by the caller (unlock in a finally block)
      */
-    private PlayerLevelSystemData loadPlayerData(UUID playerId) {
-        File playerFile = new File(dataRoot, playerId.toString() + ".json");
-        
-        if (!playerFile.exists()) {
-            logger.at(Level.INFO).log("Creating new player data for: " + playerId);
-            return new PlayerLevelSystemData(playerId);
+    public ReentrantLock lockPlayerData(UUID playerId) {
+        getPlayerData(playerId);
+        ReentrantLock lock = playerLocks.lockFor(playerId);
+        lock.lock();
+        return lock;
+    }
+
+    /**
+     * Start loading a connecting player's data in the background, so PlayerReady and the first EXP grant
+     * find it resident. Pins the player. A getPlayerData call during the load waits for it instead of
+     * reading the same data twice.
+     */
+    public CompletableFuture<PlayerLevelSystemData> prefetchPlayerData(UUID playerId) {
+        pinPlayer(playerId);
+        PlayerLevelSystemData cached = playerDataCache.get(playerId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
-        
-        try (FileReader reader = new FileReader(playerFile)) {
-            PlayerLevelSystemData data = gson.fromJson(reader, PlayerLevelSystemData.class);
+        try {
+            return CompletableFuture.supplyAsync(() -> getPlayerData(playerId), prefetchExecutor)
+                .whenComplete((data, failure) -> {
+                    if (failure != null) {
+                        logger.at(Level.WARNING).withCause(failure).log("Prefetch failed for: " + playerId);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the data is loaded on first use instead
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Keep a player's data resident while they are online (call on connect).
+     */
+    public void pinPlayer(UUID playerId) {
+        onlinePlayers.add(playerId);
+        offlineCache.remove(playerId);
+    }
+
+    /**
+     * Whether the player is connected (pinned on connect, until their data is unloaded on disconnect)
+     */
+    public boolean isOnline(UUID playerId) {
+        return onlinePlayers.contains(playerId);
+    }
+
+    /**
+     * Save and drop offline players that are over the cache size or idle longer than the TTL.
+     */
+    public void evictOfflinePlayers() {
+        List<UUID> evicted = offlineCache.selectEvictions(System.currentTimeMillis());
+        int unloaded = 0;
+        for (UUID playerId : evicted) {
+            if (unload(playerId, true)) {
+                unloaded++;
+            }
+        }
+        if (unloaded > 0) {
+            logger.at(Level.FINE).log("Evicted " + unloaded + " offline player(s) from the cache");
+        }
+    }
+
+    /**
+     * Drop a player from the cache and write their last snapshot. The snapshot is taken and the entry
+     * removed under the player's lock, so a concurrent mutation either lands in the snapshot or reloads
+     * the player afterwards (a reload waits for the write). The write runs outside the lock.
+     * @param offlineOnly keep the player if they are online (eviction)
+     * @return false if the player was not unloaded (not cached, or online)
+     */
+    private boolean unload(UUID playerId, boolean offlineOnly) {
+        Snapshot snapshot = playerLocks.withLock(playerId, () -> {
+            if (offlineOnly && onlinePlayers.contains(playerId)) {
+                return null; // Came online meanwhile
+            }
+            onlinePlayers.remove(playerId);
+            offlineCache.remove(playerId);
+            PlayerLevelSystemData data = playerDataCache.get(playerId);
+            if (data == null) {
+                return null;
+            }
+            // The write is in flight before the entry goes, so a load that misses the cache waits for it
+            Snapshot last = snapshot(playerId, data, null);
+            playerDataCache.remove(playerId);
+            if (flusher != null) {
+                flusher.cancel(playerId);
+            }
+            fireUnloaded(playerId);
+            return last;
+        });
+        if (snapshot == null) {
+            return false;
+        }
+        write(playerId, snapshot);
+        return true;
+    }
+
+    private void evictOfflinePlayersSafely() {
+        try {
+            evictOfflinePlayers();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Offline player cache eviction failed");
+        }
+    }
+
+    public OfflinePlayerCache getOfflineCache() {
+        return offlineCache;
+    }
+
+    /**
+     * Lock serializing all changes to one player's data (reentrant). Hold it from reading the values
+     * to be changed until {@link #markDirty(UUID, String, PlayerDataMutation)} returns.
+     */
+    public ReentrantLock getPlayerLock(UUID playerId) {
+        return playerLocks.lockFor(playerId);
+    }
+
+    /**
+     * Consistent copy of a player's data for serialization; stamps the journal sequence it contains and
+     * takes its place in the player's write order, so it must be passed to {@link #write} (or the batch
+     * equivalent). The live data is considered clean afterwards (the copy contains every change).
+     * The data must be the cached instance, looked up under the same lock hold (or data that is not
+     * cached at all, e.g. during journal recovery): an instance unloaded meanwhile would be written with
+     * a newer sequence than its unload, over whatever a reload of the player saved since.
+     * @param categories changed categories for a delta save, or null for a full save. The snapshot is
+     *                   full anyway if the backend has no delta saves, or while an earlier snapshot of the
+     *                   player is still being written.
+     */
+    private Snapshot snapshot(UUID playerId, PlayerLevelSystemData data, Set<String> categories) {
+        return playerLocks.withLock(playerId, () -> {
+            long sequence = writeOrder.begin(playerId);
+            Set<String> delta = categories != null && storage.supportsDelta() && !writeOrder.hasEarlierInFlight(playerId)
+                ? categories : null;
+            PlayerDataJournal current = journal;
+            if (current != null) {
+                // Appends for this player hold the same lock, so the snapshot contains every record up to here
+                data.setJournalSequence(current.currentSequence());
+            }
+            // A delta only copies what it writes (visited chunks are the largest part of a player)
+            PlayerLevelSystemData copy = delta != null ? data.copy(delta, data.isVisitedChunksDirty()) : data.copy();
+            data.clearDirty();
+            return new Snapshot(data, copy, sequence, delta);
+        });
+    }
+
+    /**
+     * Write a snapshot, unless a newer snapshot of the player was written meanwhile. A failed write,
+     * including one that only fails when it is committed later (group commit), leaves the live data
+     * fully dirty for the next save.
+     * @return completes when the snapshot is durable, or exceptionally if it could not be saved
+     */
+    private CompletableFuture<Void> write(UUID playerId, Snapshot snapshot) {
+        CompletableFuture<Void> durable;
+        try {
+            durable = writeOrder.write(playerId, snapshot.sequence, () -> {
+                logger.at(Level.FINE).log("Saving player data for: " + playerId
+                    + (snapshot.categories == null ? "" : " (" + snapshot.categories.size() + " categories)"));
+                return snapshot.categories == null
+                    ? storage.save(snapshot.data)
+                    : storage.saveDelta(snapshot.data, snapshot.categories);
+            });
+        } catch (IOException e) {
+            durable = CompletableFuture.failedFuture(e);
+        }
+        return durable.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                markSaveFailed(playerId, snapshot.source);
+                logger.at(Level.SEVERE).withCause(failure).log("Failed to save player data for: " + playerId);
+            }
+        });
+    }
+
+    /**
+     * Wait for saves (after {@link PlayerDataStorage#flush()} issued their commits)
+     * @return false if any of them failed
+     */
+    private static boolean awaitDurable(List<CompletableFuture<Void>> saves) {
+        try {
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture[0])).join();
+            return true;
+        } catch (CompletionException | CancellationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A failed save must be retried in full by the next save. If the player was unloaded meanwhile, the
+     * data goes back into the cache (as an offline player), so autosave or the next eviction retries it.
+     */
+    private void markSaveFailed(UUID playerId, PlayerLevelSystemData data) {
+        playerLocks.withLock(playerId, () -> {
+            data.markAllDirty();
+            PlayerLevelSystemData cached = playerDataCache.putIfAbsent(playerId, data);
+            if (cached == null && !onlinePlayers.contains(playerId)) {
+                offlineCache.touch(playerId, System.currentTimeMillis());
+            } else if (cached != null && cached != data) {
+                logger.at(Level.SEVERE).log("Unsaved changes of " + playerId + " are lost: the player was reloaded before their save failed");
+            }
+        });
+    }
+
+    /**
+     * Load player data from the storage backend (new data if the player has no snapshot yet)
+     */
+    private PlayerLevelSystemData loadPlayerData(UUID playerId) {
+        try {
+            PlayerLevelSystemData data = storage.load(playerId);
             if (data != null) {
                 data.setPlayerId(playerId); // Ensure UUID is set
+                if (journal != null) {
+                    journal.observeSequence(data.getJournalSequence());
+                }
                 logger.at(Level.FINE).log("Loaded player data for: " + playerId);
                 return data;
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
             logger.at(Level.SEVERE).withCause(e).log("Failed to load player data for: " + playerId);
         }
         
+        logger.at(Level.INFO).log("Creating new player data for: " + playerId);
         return new PlayerLevelSystemData(playerId);
     }
 
+    /**
+     * Mark one category of a player's data as changed; call it after every mutation, still holding the
+     * player's lock. With the journal enabled this appends a small record for the touched sections
+     * instead of rewriting the player file. Otherwise the player is written by the write-behind flusher,
+     * or right away if write-behind is off or its queue is full (see {@link #markDirty(UUID)}), and only
+     * this category is written where the backend supports delta saves. Listeners are notified first.
+     */
+    public void markDirty(UUID playerId, String categoryId, PlayerDataMutation mutation) {
+        if (mutation != null) {
+            fireChanged(playerId, categoryId, mutation);
+        }
+        PlayerLevelSystemData data = playerDataCache.get(playerId);
+        if (data != null && categoryId != null) {
+            PlayerDataJournal current = journal;
+            boolean journaled = playerLocks.withLock(playerId, () -> {
+                if (current != null && mutation != null && current.append(data, categoryId, mutation) >= 0) {
+                    return true;
+                }
+                data.markCategoryDirty(categoryId);
+                return false;
+            });
+            if (journaled) {
+                return;
+            }
+        }
+        markDirty(playerId);
+    }
+
+    /**
+     * Mark player data as changed. With write-behind the write is deferred to the flusher;
+     * otherwise (or when the flush queue is full) the player is saved immediately.
+     */
+    public void markDirty(UUID playerId) {
+        PlayerDataFlusher current = flusher;
+        if (current != null && current.markDirty(playerId)) {
+            return;
+        }
+        flushPlayerData(playerId);
+    }
+
+    /**
+     * Write a cached player's unsaved changes: only the dirty categories if that is all that changed,
+     * otherwise the whole snapshot. Does nothing if the player has no unsaved changes.
+     */
+    public void flushPlayerData(UUID playerId) {
+        Snapshot snapshot = playerLocks.withLock(playerId, () -> {
+            PlayerLevelSystemData data = playerDataCache.get(playerId);
+            if (data == null || !data.isDirty()) {
+                return null;
+            }
+            // Categories may be empty if only visited chunks changed
+            return snapshot(playerId, data, data.isFullyDirty() ? null : new HashSet<>(data.getDirtyCategories()));
+        });
+        if (snapshot != null) {
+            write(playerId, snapshot);
+        }
+    }
+
+    /**
+     * Full snapshot of a cached player (see {@link #snapshot}), or null if the player is not cached
+     */
+    private Snapshot snapshotCached(UUID playerId) {
+        return playerLocks.withLock(playerId, () -> {
+            PlayerLevelSystemData data = playerDataCache.get(playerId);
+            return data != null ? snapshot(playerId, data, null) : null;
+        });
+    }
+
     /**
      * Save player data to disk
      */
     public void savePlayerData(UUID playerId) {
-        PlayerLevelSystemData data = playerDataCache.get(playerId);
-        if (data == null) {
+        Snapshot snapshot = snapshotCached(playerId);
+        if (snapshot == null) {
             logger.at(Level.WARNING).log("Attempted to save non-existent player data: " + playerId);
             return;
         }
         
-        savePlayerData(playerId, data);
+        write(playerId, snapshot);
     }
 
     /**
-     * Save player data to disk
+     * Save all cached player data in parallel (see {@link #saveAll(int, long)}) with the configured
+     * thread count and deadline.
+     * @return players that could not be saved
      */
-    public void savePlayerData(UUID playerId, PlayerLevelSystemData data) {
-        File playerFile = new File(dataRoot, playerId.toString() + ".json");
-        
-        try (FileWriter writer = new FileWriter(playerFile)) {
-            gson.toJson(data, writer);
-            logger.at(Level.FINE).log("Saved player data for: " + playerId);
-        } catch (IOException e) {
-            logger.at(Level.SEVERE).withCause(e).log("Failed to save player data for: " + playerId);
+    public List<UUID> saveAll() {
+        return saveAll(shutdownSaveThreads, shutdownSaveTimeoutMs);
+    }
+
+    /**
+     * Save all cached player data: players are split into batches (one transaction / commit window
+     * each) that are snapshotted and written by a bounded pool. Stops waiting at the deadline.
+     * @return players whose batch failed or did not finish before the deadline
+     */
+    public List<UUID> saveAll(int threads, long timeoutMs) {
+        long start = System.nanoTime();
+        List<UUID> players = new ArrayList<>(playerDataCache.keySet());
+        logger.at(Level.INFO).log("Saving all player data (" + players.size() + " players)...");
+
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int i = 0; i < players.size(); i += SAVE_CHUNK_SIZE) {
+            chunks.add(players.subList(i, Math.min(players.size(), i + SAVE_CHUNK_SIZE)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, Math.max(1, chunks.size()))), r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-SaveAll");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<CompletableFuture<Void>>> futures = new ArrayList<>(chunks.size());
+        for (List<UUID> chunk : chunks) {
+            futures.add(pool.submit(() -> saveBatch(chunk)));
+        }
+        pool.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<UUID> failed = new ArrayList<>();
+        List<CompletableFuture<Void>> durable = new ArrayList<>(chunks.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                durable.add(futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                continue;
+            } catch (TimeoutException e) {
+                futures.get(i).cancel(true);
+            } catch (ExecutionException e) {
+                logger.at(Level.SEVERE).withCause(e.getCause()).log("Failed to save a batch of " + chunks.get(i).size() + " player(s)");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.get(i).cancel(true);
+            }
+            durable.add(null);
+            failed.addAll(chunks.get(i));
+        }
+        pool.shutdownNow();
+        storage.flush();
+        // Written batches that could not be committed (group commit) failed too
+        for (int i = 0; i < durable.size(); i++) {
+            if (durable.get(i) != null && !awaitDurable(List.of(durable.get(i)))) {
+                failed.addAll(chunks.get(i));
+            }
+        }
+
+        for (UUID playerId : failed) {
+            PlayerLevelSystemData data = playerDataCache.get(playerId);
+            if (data != null) {
+                markSaveFailed(playerId, data);
+            }
         }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (failed.isEmpty()) {
+            logger.at(Level.INFO).log("Saved " + players.size() + " player(s) in " + elapsedMs + " ms (" + storage.getName() + ")");
+        } else {
+            logger.at(Level.SEVERE).log("Saved " + (players.size() - failed.size()) + " of " + players.size()
+                + " player(s) in " + elapsedMs + " ms; not saved: " + failed);
+        }
+        return failed;
     }
 
     /**
-     * Save all cached player data
+     * Snapshot a batch of players and write them with one storage call. Snapshots that are already
+     * outdated (a newer one was written meanwhile) are left out.
+     * @return completes when the batch is durable
      */
-    public void saveAll() {
-        logger.at(Level.INFO).log("Saving all player data...");
-        for (Map.Entry<UUID, PlayerLevelSystemData> entry : playerDataCache.entrySet()) {
-            savePlayerData(entry.getKey(), entry.getValue());
+    private CompletableFuture<Void> saveBatch(List<UUID> playerIds) throws IOException {
+        List<UUID> ids = new ArrayList<>(playerIds.size());
+        List<PlayerLevelSystemData> snapshots = new ArrayList<>(playerIds.size());
+        long[] sequences = new long[playerIds.size()];
+        for (UUID playerId : playerIds) {
+            Snapshot snapshot = snapshotCached(playerId);
+            if (snapshot == null) {
+                continue; // Unloaded meanwhile, which saved it
+            }
+            sequences[ids.size()] = snapshot.sequence;
+            ids.add(playerId);
+            snapshots.add(snapshot.data);
+        }
+        return writeOrder.writeBatch(ids, sequences, indexes -> {
+            List<PlayerLevelSystemData> batch = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                batch.add(snapshots.get(i));
+            }
+            return storage.saveBatch(batch);
+        });
+    }
+
+    /**
+     * Top players of a category by level, then EXP. Served from the stored snapshots, so progress
+     * still waiting for write-behind or journal compaction is not included yet.
+     */
+    public List<LeaderboardEntry> getTopPlayers(String categoryId, int limit) {
+        try {
+            return storage.topByLevel(categoryId, limit);
+        } catch (IOException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to query top players for: " + categoryId);
+            return new ArrayList<>();
         }
-        logger.at(Level.INFO).log("Saved " + playerDataCache.size() + " player data files");
     }
 
     /**
      * Unload player data from cache (call on disconnect)
      */
     public void unloadPlayerData(UUID playerId) {
-        savePlayerData(playerId);
-        playerDataCache.remove(playerId);
-        logger.at(Level.FINE).log("Unloaded player data for: " + playerId);
+        if (unload(playerId, false)) {
+            logger.at(Level.FINE).log("Unloaded player data for: " + playerId);
+        }
     }
 
     /**
-     * Initialize player with all categories
+     * Initialize player with all categories. Only marks the player dirty (no save on the calling thread),
+     * and only if a category was actually added.
      */
     public void initializePlayerCategories(UUID playerId, CategoryService categoryService) {
         PlayerLevelSystemData data = getPlayerData(playerId);
         
-        for (String categoryId : categoryService.getCategoryIds()) {
-            data.initializeCategory(categoryId);
-        }
+        boolean added = playerLocks.withLock(playerId, () -> {
+            boolean any = false;
+            for (String categoryId : categoryService.getCategoryIds()) {
+                if (data.initializeCategory(categoryId)) {
+                    data.markCategoryDirty(categoryId);
+                    any = true;
+                }
+            }
+            return any;
+        });
         
-        savePlayerData(playerId, data);
+        if (added) {
+            fireChanged(playerId, null, PlayerDataMutation.ADMIN);
+            markDirty(playerId);
+        }
+    }
+
+    /**
+     * Export a player's data as pretty-printed JSON to SeyonLevelSystem/export/&lt;uuid&gt;.json (admin tool).
+     * @return the written file
+     */
+    public File exportPlayerData(UUID playerId) throws IOException {
+        File exportDir = new File(dataRoot.getParentFile(), "export");
+        if (!exportDir.exists()) {
+            exportDir.mkdirs();
+        }
+        File exportFile = new File(exportDir, playerId.toString() + FilePlayerDataStorage.JSON_EXTENSION);
+        PlayerLevelSystemData data = getPlayerData(playerId);
+        PlayerLevelSystemData copy = playerLocks.withLock(playerId, () -> data.copy());
+        Files.write(exportFile.toPath(), gson.toJson(copy).getBytes(StandardCharsets.UTF_8));
+        logger.at(Level.INFO).log("Exported player data for " + playerId + " to " + exportFile.getPath());
+        return exportFile;
+    }
+
+    /**
+     * Import a player's data from SeyonLevelSystem/export/&lt;uuid&gt;.json (admin tool). Replaces the cached
+     * data and saves it in the configured format.
+     * @return false if there is no export file or it could not be read
+     */
+    public boolean importPlayerData(UUID playerId) {
+        File importFile = new File(new File(dataRoot.getParentFile(), "export"), playerId.toString() + FilePlayerDataStorage.JSON_EXTENSION);
+        if (!importFile.exists()) {
+            return false;
+        }
+        try {
+            PlayerLevelSystemData data = gson.fromJson(
+                new String(Files.readAllBytes(importFile.toPath()), StandardCharsets.UTF_8), PlayerLevelSystemData.class);
+            if (data == null) {
+                return false;
+            }
+            data.setPlayerId(playerId);
+            Snapshot snapshot = playerLocks.withLock(playerId, () -> {
+                playerDataCache.put(playerId, data);
+                if (!onlinePlayers.contains(playerId)) {
+                    offlineCache.touch(playerId, System.currentTimeMillis());
+                }
+                fireChanged(playerId, null, PlayerDataMutation.ADMIN);
+                return snapshot(playerId, data, null);
+            });
+            write(playerId, snapshot);
+            logger.at(Level.INFO).log("Imported player data for " + playerId + " from " + importFile.getPath());
+            return true;
+        } catch (Exception e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to import player data for: " + playerId);
+            return false;
+        }
+    }
+
+    /**
+     * Copy of a player's data taken for one write, with its place in the player's write order
+     */
+    private static final class Snapshot {
+        /** The live data the copy was taken from */
+        final PlayerLevelSystemData source;
+        final PlayerLevelSystemData data;
+        final long sequence;
+        /** Categories of a delta save, or null for a full save */
+        final Set<String> categories;
+
+        Snapshot(PlayerLevelSystemData source, PlayerLevelSystemData data, long sequence, Set<String> categories) {
+            this.source = source;
+            this.data = data;
+            this.sequence = sequence;
+            this.categories = categories;
+        }
     }
 }
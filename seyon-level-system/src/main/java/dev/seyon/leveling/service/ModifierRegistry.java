@@ -0,0 +1,95 @@
+package dev.seyon.leveling.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns modifier IDs ("max_health", "mining_speed") to dense int slots, so modifier totals can be
+ * kept in a {@code double[]} indexed by slot instead of a {@code Map<String, Double>}.
+ * <p>
+ * Slots are only ever added, never reused: a slot stays valid across reloads, and vectors built
+ * before a new ID was interned are simply shorter (missing slots read as 0).
+ */
+public final class ModifierRegistry {
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    /**
+     * Slot of a modifier ID, assigning the next free slot to a new ID
+     */
+    public int intern(String modifierId) {
+        Integer slot = slots.get(modifierId);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            slot = slots.get(modifierId);
+            if (slot == null) {
+                slot = names.length;
+                String[] grown = Arrays.copyOf(names, slot + 1);
+                grown[slot] = modifierId;
+                // Publish the name before the slot, so slotOf never returns a slot name() cannot resolve
+                names = grown;
+                slots.put(modifierId, slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * Slot of a modifier ID, or -1 if no config uses it
+     */
+    public int slotOf(String modifierId) {
+        Integer slot = modifierId != null ? slots.get(modifierId) : null;
+        return slot != null ? slot : -1;
+    }
+
+    public String name(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Number of interned IDs (length of a full modifier vector)
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Sparse (slot, value) form of a config modifier map
+     */
+    public SparseModifiers compile(Map<String, Double> modifiers) {
+        if (modifiers == null || modifiers.isEmpty()) {
+            return SparseModifiers.EMPTY;
+        }
+        int[] slotArray = new int[modifiers.size()];
+        double[] values = new double[modifiers.size()];
+        int count = 0;
+        for (Map.Entry<String, Double> entry : modifiers.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            slotArray[count] = intern(entry.getKey());
+            values[count] = entry.getValue();
+            count++;
+        }
+        return SparseModifiers.of(Arrays.copyOf(slotArray, count), Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Map of modifier_id -> value for the non-zero slots of a vector, in slot order
+     */
+    public Map<String, Double> toMap(double[] vector) {
+        Map<String, Double> map = new LinkedHashMap<>();
+        String[] current = names;
+        for (int slot = 0; slot < vector.length && slot < current.length; slot++) {
+            if (vector[slot] != 0.0) {
+                map.put(current[slot], vector[slot]);
+            }
+        }
+        return map;
+    }
+}
@@ -2,27 +2,42 @@ package dev.seyon.leveling.service;
 
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.server.core.entity.entities.Player;
-import dev.seyon.leveling.config.LevelBonusConfig;
-import dev.seyon.leveling.config.LevelSystemCategory;
 import dev.seyon.leveling.config.SkillConfig;
 import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerDataMutation;
 import dev.seyon.leveling.model.PlayerLevelSystemData;
 import dev.seyon.core.PlayerUtils;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 /**
  * Service for calculating and applying modifiers
+ * <p>
+ * A player's global modifiers are cached until a level-up, skill change, respec or admin change is
+ * reported by {@link LevelSystemDataService}, or until categories are reloaded (a cached result
+ * remembers the category snapshot it was built from). Totals are kept as a {@code double[]} indexed by
+ * {@link ModifierRegistry} slot, so aggregation adds primitive arrays and a single modifier read is
+ * an array access.
  */
-public class ModifierService {
+public class ModifierService implements PlayerDataListener {
 
     private final HytaleLogger logger;
     private final CategoryService categoryService;
     private final LevelSystemDataService dataService;
     private final SkillService skillService;
+    private final ModifierRegistry modifierRegistry;
+    private final Map<UUID, CachedModifiers> cache = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation; a result computed across a bump is returned but not kept */
+    private final AtomicLong invalidations = new AtomicLong();
 
     public ModifierService(HytaleLogger logger, CategoryService categoryService, 
                          LevelSystemDataService dataService, SkillService skillService) {
@@ -30,6 +45,7 @@ public class ModifierService {
         this.categoryService = categoryService;
         this.dataService = dataService;
         this.skillService = skillService;
+        this.modifierRegistry = categoryService.getModifierRegistry();
     }
 
     /**
@@ -41,45 +57,85 @@ public class ModifierService {
     }
 
     /**
-     * Calculate all modifiers for a player
-     * @return Map of modifier_id -> total value
+     * Calculate all modifiers for a player (cached until the player's levels or skills change)
+     * @return Map of modifier_id -> total value (unmodifiable)
      */
     public Map<String, Double> calculateGlobalModifiers(UUID playerId) {
-        Map<String, Double> modifiers = new HashMap<>();
+        return getCached(playerId).asMap();
+    }
+
+    /**
+     * All modifier totals of a player indexed by {@link ModifierRegistry} slot (copy; slots beyond
+     * its length are 0). Two vectors diff slot by slot.
+     */
+    public double[] getModifierVector(UUID playerId) {
+        return getCached(playerId).totals.clone();
+    }
+
+    private CachedModifiers getCached(UUID playerId) {
+        List<CompiledCategory> categories = categoryService.getAllCompiledCategories();
+        CachedModifiers cached = cache.get(playerId);
+        if (cached != null && cached.categories == categories) {
+            return cached;
+        }
+        
+        long stamp = invalidations.get();
+        CachedModifiers computed = new CachedModifiers(categories, computeGlobalModifiers(playerId, categories));
+        cache.put(playerId, computed);
+        if (invalidations.get() != stamp) {
+            // Levels or skills changed while computing: the result may be stale
+            cache.remove(playerId, computed);
+        }
+        return computed;
+    }
+
+    private double[] computeGlobalModifiers(UUID playerId, List<CompiledCategory> categories) {
+        // Read after the categories: every slot they use is interned by then
+        double[] totals = new double[modifierRegistry.size()];
         PlayerLevelSystemData data = dataService.getPlayerData(playerId);
         
         // Iterate through all categories
-        for (LevelSystemCategory category : categoryService.getAllCategories()) {
+        for (CompiledCategory category : categories) {
             CategoryProgress progress = data.getCategoryProgress().get(category.getId());
             if (progress == null) {
                 continue;
             }
             
-            int level = progress.getCurrentLevel();
-            
-            // Add level bonuses
-            for (int i = 1; i <= level; i++) {
-                LevelBonusConfig bonus = category.getLevelBonus(i);
-                if (bonus != null) {
-                    for (Map.Entry<String, Double> entry : bonus.getModifiers().entrySet()) {
-                        modifiers.merge(entry.getKey(), entry.getValue(), Double::sum);
-                    }
-                }
-            }
-            
-            // Add skill bonuses
-            for (SkillConfig skill : category.getSkills()) {
-                int skillLevel = data.getSkillLevel(category.getId(), skill.getId());
-                if (skillLevel > 0) {
-                    for (Map.Entry<String, Double> entry : skill.getEffects().entrySet()) {
-                        double totalEffect = entry.getValue() * skillLevel;
-                        modifiers.merge(entry.getKey(), totalEffect, Double::sum);
-                    }
-                }
-            }
+            addCategoryModifiers(totals, category, progress.getCurrentLevel(), data);
         }
         
-        return modifiers;
+        return totals;
+    }
+
+    /**
+     * Drop a player's cached modifiers (recomputed on next read)
+     */
+    public void invalidate(UUID playerId) {
+        invalidations.incrementAndGet();
+        cache.remove(playerId);
+    }
+
+    /**
+     * Drop all cached modifiers (on reload; entries built from the old categories would otherwise stay
+     * in memory until each player's next read)
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public void onPlayerDataChanged(UUID playerId, @Nullable String categoryId, PlayerDataMutation mutation) {
+        // EXP and quest progress do not change levels or skills
+        if (mutation == PlayerDataMutation.LEVEL_UP || mutation == PlayerDataMutation.SKILL
+                || mutation == PlayerDataMutation.ADMIN) {
+            invalidate(playerId);
+        }
+    }
+
+    @Override
+    public void onPlayerDataUnloaded(UUID playerId) {
+        invalidate(playerId);
     }
 
     /**
@@ -101,52 +157,79 @@ public class ModifierService {
     }
 
     /**
-     * Get a specific modifier value for a player
+     * Get a specific modifier value for a player (cached read)
      */
     public double getModifierValue(UUID playerId, String modifierId) {
-        Map<String, Double> modifiers = calculateGlobalModifiers(playerId);
-        return modifiers.getOrDefault(modifierId, 0.0);
+        int slot = modifierRegistry.slotOf(modifierId);
+        if (slot < 0) {
+            return 0.0;
+        }
+        double[] totals = getCached(playerId).totals;
+        return slot < totals.length ? totals[slot] : 0.0;
     }
 
     /**
      * Get modifiers for a specific category only
      */
     public Map<String, Double> calculateCategoryModifiers(UUID playerId, String categoryId) {
-        Map<String, Double> modifiers = new HashMap<>();
-        LevelSystemCategory category = categoryService.getCategory(categoryId);
+        CompiledCategory category = categoryService.getCompiledCategory(categoryId);
         if (category == null) {
-            return modifiers;
+            return new HashMap<>();
         }
         
         PlayerLevelSystemData data = dataService.getPlayerData(playerId);
         CategoryProgress progress = data.getCategoryProgress().get(categoryId);
         if (progress == null) {
-            return modifiers;
+            return new HashMap<>();
         }
         
-        int level = progress.getCurrentLevel();
+        double[] totals = new double[modifierRegistry.size()];
+        addCategoryModifiers(totals, category, progress.getCurrentLevel(), data);
         
+        return modifierRegistry.toMap(totals);
+    }
+
+    /**
+     * Add the level bonuses up to the level (precomputed running total) and skill effects of one category
+     */
+    private static void addCategoryModifiers(double[] totals, CompiledCategory category,
+                                             int level, PlayerLevelSystemData data) {
         // Add level bonuses
-        for (int i = 1; i <= level; i++) {
-            LevelBonusConfig bonus = category.getLevelBonus(i);
-            if (bonus != null) {
-                for (Map.Entry<String, Double> entry : bonus.getModifiers().entrySet()) {
-                    modifiers.merge(entry.getKey(), entry.getValue(), Double::sum);
-                }
-            }
-        }
+        category.getCumulativeBonusModifiers(level).addTo(totals, 1.0);
         
         // Add skill bonuses
-        for (SkillConfig skill : category.getSkills()) {
-            int skillLevel = data.getSkillLevel(categoryId, skill.getId());
+        List<SkillConfig> skills = category.getSkills();
+        for (int i = 0; i < skills.size(); i++) {
+            int skillLevel = data.getSkillLevel(category.getId(), skills.get(i).getId());
             if (skillLevel > 0) {
-                for (Map.Entry<String, Double> entry : skill.getEffects().entrySet()) {
-                    double totalEffect = entry.getValue() * skillLevel;
-                    modifiers.merge(entry.getKey(), totalEffect, Double::sum);
-                }
+                category.getSkillEffects(i).addTo(totals, skillLevel);
             }
         }
-        
-        return modifiers;
+    }
+
+    /**
+     * Global modifiers of one player and the category snapshot they were computed from
+     */
+    private final class CachedModifiers {
+        final List<CompiledCategory> categories;
+        final double[] totals;
+        private volatile Map<String, Double> map;
+
+        CachedModifiers(List<CompiledCategory> categories, double[] totals) {
+            this.categories = categories;
+            this.totals = totals;
+        }
+
+        /**
+         * Map form for callers that want modifier IDs, built on first use
+         */
+        Map<String, Double> asMap() {
+            Map<String, Double> result = map;
+            if (result == null) {
+                result = Collections.unmodifiableMap(modifierRegistry.toMap(totals));
+                map = result;
+            }
+            return result;
+        }
     }
 }
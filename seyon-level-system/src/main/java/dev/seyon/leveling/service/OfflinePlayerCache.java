@@ -0,0 +1,97 @@
+package dev.seyon.leveling.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access-ordered LRU index of offline players whose data is resident in the data service cache
+ * (loaded by API calls or commands). Only tracks UUIDs and last access times; the data service
+ * saves and drops the entries this class selects for eviction. Online players are never tracked here.
+ */
+public class OfflinePlayerCache {
+
+    private final int maxEntries;
+    private final long ttlMs;
+    /** playerId -> last access (ms), least recently used first */
+    private final LinkedHashMap<UUID, Long> lastAccess = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxEntries max offline players kept resident
+     * @param ttlMs      drop an offline player this long after the last access
+     */
+    public OfflinePlayerCache(int maxEntries, long ttlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = Math.max(1, ttlMs);
+    }
+
+    /**
+     * Record an access to a resident offline player.
+     */
+    public synchronized void touch(UUID playerId, long now) {
+        lastAccess.put(playerId, now);
+    }
+
+    public synchronized void remove(UUID playerId) {
+        lastAccess.remove(playerId);
+    }
+
+    /**
+     * Players over the size bound (least recently used first) or idle longer than the TTL.
+     * They are removed from the index; the caller must save and drop their data.
+     */
+    public synchronized List<UUID> selectEvictions(long now) {
+        List<UUID> selected = new ArrayList<>();
+        int overflow = lastAccess.size() - maxEntries;
+        Iterator<Map.Entry<UUID, Long>> it = lastAccess.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Long> entry = it.next();
+            boolean expired = now - entry.getValue() >= ttlMs;
+            if (overflow <= 0 && !expired) {
+                // Access order: later entries were used more recently, so none of them is expired either
+                break;
+            }
+            selected.add(entry.getKey());
+            it.remove();
+            overflow--;
+        }
+        evictions.addAndGet(selected.size());
+        return selected;
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public synchronized int size() {
+        return lastAccess.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+}
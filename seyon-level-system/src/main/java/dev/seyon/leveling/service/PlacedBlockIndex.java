@@ -0,0 +1,211 @@
+package dev.seyon.leveling.service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers recently player-placed block positions, so breaking a block the player just placed
+ * (or placing again where a block was just placed) does not pay full EXP.
+ * <p>
+ * Each chunk with recent placements holds two small Bloom filters, one per half of the memory window:
+ * a lookup hashes the position once and probes a few bits in both, and a filter is cleared when its
+ * half-window is over, so positions are forgotten after 1 to 2 halves without per-position bookkeeping.
+ * Memory is {@value #CHUNK_BYTES} bytes per chunk placed in during the window, independent of the
+ * number of placements. A world keeps at most {@value #MAX_CHUNKS_PER_WORLD} chunks (16 MiB); its
+ * chunks are ordered by last placement, so the chunk placed in longest ago is dropped when a new one
+ * does not fit, and expired chunks are dropped from the old end without scanning the rest.
+ * <p>
+ * A filter may mistake a natural block for a placed one. With n placements in one chunk within a
+ * half-window the chance is about (1 - e^(-4n/16384))^4: 0.2% at 1000, 2% at 2000, 15% at 4000.
+ */
+public class PlacedBlockIndex {
+
+    /** Chunks are 32 x 32 blocks */
+    private static final int CHUNK_SHIFT = 5;
+    /** Bits per filter (power of two, {@value #PROBE_BITS} bits per probe) and probes per position */
+    private static final int PROBE_BITS = 14;
+    private static final int FILTER_BITS = 1 << PROBE_BITS;
+    private static final int PROBES = 4;
+    private static final int CHUNK_BYTES = 2 * FILTER_BITS / 8;
+    private static final int MAX_CHUNKS_PER_WORLD = 4096;
+
+    private final Map<String, WorldIndex> worlds = new ConcurrentHashMap<>();
+    private volatile long memoryMs = 3_600_000L;
+    private volatile double expFactor = 0.0;
+
+    /**
+     * @param memoryMs how long placements are remembered (0 = disabled)
+     * @param expFactor EXP multiplier for breaking a remembered block or placing on a remembered position
+     */
+    public void configure(long memoryMs, double expFactor) {
+        this.memoryMs = Math.max(0, memoryMs);
+        this.expFactor = Math.max(0.0, expFactor);
+        if (this.memoryMs == 0) {
+            worlds.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return memoryMs > 0;
+    }
+
+    public double getExpFactor() {
+        return expFactor;
+    }
+
+    /**
+     * Record a player placement
+     * @return true if a block was already placed at this position within the memory window
+     */
+    public boolean recordPlacement(String world, int x, int y, int z) {
+        long window = memoryMs;
+        if (window <= 0) {
+            return false;
+        }
+        long generation = generation(window);
+        WorldIndex index = worlds.computeIfAbsent(world, w -> new WorldIndex());
+        return index.add(chunkKey(x, z), positionHash(x, y, z), generation);
+    }
+
+    /**
+     * @return true if a player placed a block at this position within the memory window
+     */
+    public boolean isPlayerPlaced(String world, int x, int y, int z) {
+        long window = memoryMs;
+        if (window <= 0) {
+            return false;
+        }
+        WorldIndex index = worlds.get(world);
+        ChunkFilter filter = index != null ? index.get(chunkKey(x, z)) : null;
+        return filter != null && filter.contains(positionHash(x, y, z), generation(window));
+    }
+
+    /**
+     * Half-window number of now: filters of older half-windows are cleared
+     */
+    private static long generation(long window) {
+        return System.currentTimeMillis() / Math.max(1, window / 2);
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) (x >> CHUNK_SHIFT) << 32) | ((z >> CHUNK_SHIFT) & 0xFFFFFFFFL);
+    }
+
+    /** 64-bit mix (SplitMix64 finalizer) of the block position */
+    private static long positionHash(int x, int y, int z) {
+        long h = ((long) y << 32) ^ ((long) (x & 31) << 5) ^ (z & 31);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Chunk filters of one world, least recently placed in first
+     */
+    private static final class WorldIndex {
+        private final LinkedHashMap<Long, ChunkFilter> chunks = new LinkedHashMap<>();
+
+        synchronized ChunkFilter get(long chunkKey) {
+            return chunks.get(chunkKey);
+        }
+
+        /**
+         * Add a placement and move its chunk to the recent end. A chunk without a filter gets one, after
+         * dropping expired chunks and, if the world is still full, the least recently placed one.
+         * @return true if the position was already in the chunk's filter
+         */
+        synchronized boolean add(long chunkKey, long hash, long generation) {
+            ChunkFilter filter = chunks.remove(chunkKey);
+            if (filter == null) {
+                dropExpired(generation);
+                if (chunks.size() >= MAX_CHUNKS_PER_WORLD) {
+                    Iterator<ChunkFilter> eldest = chunks.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+                filter = new ChunkFilter();
+            }
+            chunks.put(chunkKey, filter);
+            // Under the world lock, so the chunks stay ordered by placement generation for dropExpired
+            return filter.add(hash, generation);
+        }
+
+        /**
+         * Drop chunks without placements in the window: they are at the old end, so this stops at the first live one
+         */
+        private void dropExpired(long generation) {
+            Iterator<ChunkFilter> it = chunks.values().iterator();
+            while (it.hasNext() && it.next().placedGeneration() < generation - 1) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Bloom filters of the current and previous half-window of one chunk
+     */
+    private static final class ChunkFilter {
+        private long[] current = new long[FILTER_BITS / 64];
+        private long[] previous = new long[FILTER_BITS / 64];
+        private long generation = Long.MIN_VALUE;
+
+        synchronized boolean add(long hash, long now) {
+            rotate(now);
+            boolean known = probe(current, hash) || probe(previous, hash);
+            for (int i = 0; i < PROBES; i++) {
+                int bit = bit(hash, i);
+                current[bit >>> 6] |= 1L << bit;
+            }
+            return known;
+        }
+
+        synchronized boolean contains(long hash, long now) {
+            if (now == generation) {
+                return probe(current, hash) || probe(previous, hash);
+            }
+            // The current filter becomes the previous one on the next placement; older ones are expired
+            return now == generation + 1 && probe(current, hash);
+        }
+
+        /**
+         * Half-window of the last placement
+         */
+        synchronized long placedGeneration() {
+            return generation;
+        }
+
+        private void rotate(long now) {
+            if (now == generation) {
+                return;
+            }
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0L);
+            if (now == generation + 1) {
+                previous = current;
+            } else {
+                Arrays.fill(current, 0L);
+                previous = current;
+            }
+            current = recycled;
+            generation = now;
+        }
+
+        private static boolean probe(long[] filter, long hash) {
+            for (int i = 0; i < PROBES; i++) {
+                int bit = bit(hash, i);
+                if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** i-th probe: {@value #PROBE_BITS}-bit slices of the hash */
+        private static int bit(long hash, int i) {
+            return (int) (hash >>> (i * PROBE_BITS)) & (FILTER_BITS - 1);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package dev.seyon.leveling.service;
+
+import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+import dev.seyon.leveling.model.VisitedChunkSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact, versioned binary encoding of {@link PlayerLevelSystemData}.
+ * <p>
+ * Layout (version 2; version 1 files have no visited chunk section and are still read):
+ * <pre>
+ * "SLB" version:u8  uuid:16 bytes  journalSequence:varlong
+ * dictionary: count:varint, then count x (length:varint, UTF-8 bytes)   -- category and skill IDs
+ * categories: count:varint, then per category:
+ *   id:varint(dict)  flags:u8 (1=progress, 2=skill points, 4=skills, 8=quests, 16=canGainExp)
+ *   [progress]     level:varint  exp:f64  expForNextLevel:f64  pendingLevelUps:varint
+ *   [skill points] points:zigzag varint
+ *   [skills]       count:varint, then count x (id:varint(dict), points:varint)
+ *   [quests]       bitset of completed quest levels: length:varint, bytes
+ * visited chunks: count:varint, then count x (world length:varint, UTF-8 bytes, set length:varint,
+ *   {@link VisitedChunkSet#toBytes()})
+ * </pre>
+ * Each ID is written once per file; decoded IDs are interned so thousands of cached players share
+ * the same String instances.
+ */
+public final class PlayerDataBinaryCodec {
+
+    private static final byte[] MAGIC = {'S', 'L', 'B'};
+    public static final int VERSION = 2;
+
+    private static final int FLAG_PROGRESS = 1;
+    private static final int FLAG_SKILL_POINTS = 2;
+    private static final int FLAG_SKILLS = 4;
+    private static final int FLAG_QUESTS = 8;
+    private static final int FLAG_CAN_GAIN_EXP = 16;
+
+    private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    private PlayerDataBinaryCodec() {}
+
+    /**
+     * True if the bytes start with the binary header (used to tell binary from JSON files).
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length >= MAGIC.length + 1 && bytes[0] == MAGIC[0] && bytes[1] == MAGIC[1] && bytes[2] == MAGIC[2];
+    }
+
+    public static byte[] encode(PlayerLevelSystemData data) throws IOException {
+        // Union of all category IDs (the four maps are normally in sync, but need not be)
+        Set<String> categoryIds = new LinkedHashSet<>();
+        categoryIds.addAll(data.getCategoryProgress().keySet());
+        categoryIds.addAll(data.getAvailableSkillPoints().keySet());
+        categoryIds.addAll(data.getActiveSkills().keySet());
+        categoryIds.addAll(data.getCompletedQuests().keySet());
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String categoryId : categoryIds) {
+            dictionary.putIfAbsent(categoryId, dictionary.size());
+            Map<String, Integer> skills = data.getActiveSkills().get(categoryId);
+            if (skills != null) {
+                for (String skillId : skills.keySet()) {
+                    dictionary.putIfAbsent(skillId, dictionary.size());
+                }
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        UUID playerId = data.getPlayerId();
+        out.writeLong(playerId != null ? playerId.getMostSignificantBits() : 0L);
+        out.writeLong(playerId != null ? playerId.getLeastSignificantBits() : 0L);
+        writeVarLong(out, data.getJournalSequence());
+
+        writeVarInt(out, dictionary.size());
+        for (String id : dictionary.keySet()) {
+            byte[] utf8 = id.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, utf8.length);
+            out.write(utf8);
+        }
+
+        writeVarInt(out, categoryIds.size());
+        for (String categoryId : categoryIds) {
+            CategoryProgress progress = data.getCategoryProgress().get(categoryId);
+            Integer skillPoints = data.getAvailableSkillPoints().get(categoryId);
+            Map<String, Integer> skills = data.getActiveSkills().get(categoryId);
+            Set<Integer> quests = data.getCompletedQuests().get(categoryId);
+
+            int flags = 0;
+            if (progress != null) flags |= FLAG_PROGRESS;
+            if (progress != null && progress.isCanGainExp()) flags |= FLAG_CAN_GAIN_EXP;
+            if (skillPoints != null) flags |= FLAG_SKILL_POINTS;
+            if (skills != null) flags |= FLAG_SKILLS;
+            if (quests != null) flags |= FLAG_QUESTS;
+
+            writeVarInt(out, dictionary.get(categoryId));
+            out.writeByte(flags);
+            if (progress != null) {
+                writeVarInt(out, progress.getCurrentLevel());
+                out.writeDouble(progress.getCurrentExp());
+                out.writeDouble(progress.getExpForNextLevel());
+                writeVarInt(out, progress.getPendingLevelUps());
+            }
+            if (skillPoints != null) {
+                writeVarInt(out, zigZag(skillPoints));
+            }
+            if (skills != null) {
+                writeVarInt(out, skills.size());
+                for (Map.Entry<String, Integer> skill : skills.entrySet()) {
+                    writeVarInt(out, dictionary.get(skill.getKey()));
+                    writeVarInt(out, skill.getValue() != null ? skill.getValue() : 0);
+                }
+            }
+            if (quests != null) {
+                BitSet bits = new BitSet();
+                for (Integer level : quests) {
+                    if (level != null && level >= 0) {
+                        bits.set(level);
+                    }
+                }
+                byte[] packed = bits.toByteArray();
+                writeVarInt(out, packed.length);
+                out.write(packed);
+            }
+        }
+
+        int worlds = 0;
+        for (VisitedChunkSet chunks : data.getVisitedChunks().values()) {
+            if (!chunks.isEmpty()) {
+                worlds++;
+            }
+        }
+        // Worlds without a visited chunk are left out
+        writeVarInt(out, worlds);
+        for (Map.Entry<String, VisitedChunkSet> world : data.getVisitedChunks().entrySet()) {
+            if (world.getValue().isEmpty()) {
+                continue;
+            }
+            byte[] name = world.getKey().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, name.length);
+            out.write(name);
+            byte[] chunks = world.getValue().toBytes();
+            writeVarInt(out, chunks.length);
+            out.write(chunks);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static PlayerLevelSystemData decode(byte[] bytes) throws IOException {
+        if (!isBinary(bytes)) {
+            throw new IOException("Not a binary player data file");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, bytes.length - MAGIC.length));
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary player data version: " + version);
+        }
+
+        PlayerLevelSystemData data = new PlayerLevelSystemData(new UUID(in.readLong(), in.readLong()));
+        data.setJournalSequence(readVarLong(in));
+
+        int dictionarySize = readVarInt(in);
+        List<String> dictionary = new ArrayList<>(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            byte[] utf8 = new byte[readVarInt(in)];
+            in.readFully(utf8);
+            dictionary.add(intern(new String(utf8, StandardCharsets.UTF_8)));
+        }
+
+        int categoryCount = readVarInt(in);
+        for (int i = 0; i < categoryCount; i++) {
+            String categoryId = dictionary.get(readVarInt(in));
+            int flags = in.readUnsignedByte();
+            if ((flags & FLAG_PROGRESS) != 0) {
+                CategoryProgress progress = new CategoryProgress(categoryId);
+                progress.setCurrentLevel(readVarInt(in));
+                progress.setCurrentExp(in.readDouble());
+                progress.setExpForNextLevel(in.readDouble());
+                progress.setPendingLevelUps(readVarInt(in));
+                progress.setCanGainExp((flags & FLAG_CAN_GAIN_EXP) != 0);
+                data.getCategoryProgress().put(categoryId, progress);
+            }
+            if ((flags & FLAG_SKILL_POINTS) != 0) {
+                data.getAvailableSkillPoints().put(categoryId, unZigZag(readVarInt(in)));
+            }
+            if ((flags & FLAG_SKILLS) != 0) {
+                int count = readVarInt(in);
+                Map<String, Integer> skills = new HashMap<>(Math.max(4, count * 2));
+                for (int s = 0; s < count; s++) {
+                    skills.put(dictionary.get(readVarInt(in)), readVarInt(in));
+                }
+                data.getActiveSkills().put(categoryId, skills);
+            }
+            if ((flags & FLAG_QUESTS) != 0) {
+                byte[] packed = new byte[readVarInt(in)];
+                in.readFully(packed);
+                BitSet bits = BitSet.valueOf(packed);
+                Set<Integer> quests = new HashSet<>();
+                for (int level = bits.nextSetBit(0); level >= 0; level = bits.nextSetBit(level + 1)) {
+                    quests.add(level);
+                }
+                data.getCompletedQuests().put(categoryId, quests);
+            }
+        }
+
+        if (version >= 2) {
+            int worldCount = readVarInt(in);
+            for (int i = 0; i < worldCount; i++) {
+                byte[] name = new byte[readVarInt(in)];
+                in.readFully(name);
+                byte[] chunks = new byte[readVarInt(in)];
+                in.readFully(chunks);
+                data.getVisitedChunks().put(new String(name, StandardCharsets.UTF_8), VisitedChunkSet.fromBytes(chunks));
+            }
+        }
+        return data;
+    }
+
+    private static String intern(String id) {
+        String existing = INTERNED.putIfAbsent(id, id);
+        return existing != null ? existing : id;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varlong");
+    }
+}
@@ -0,0 +1,130 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Write-behind queue for player data. Mutations mark a player dirty; a single background thread
+ * drains the queue once per flush interval, so each player is written at most once per interval
+ * no matter how many EXP grants happened in between.
+ * The queue is bounded: when it is full, {@link #markDirty(UUID)} returns false and the caller
+ * is expected to write synchronously (backpressure instead of unbounded memory growth).
+ */
+public class PlayerDataFlusher {
+
+    private final HytaleLogger logger;
+    private final Consumer<UUID> writer;
+    private final long flushIntervalMs;
+    private final BlockingQueue<UUID> queue;
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param writer          writes one player's cached data to disk (called on the flusher thread)
+     * @param flushIntervalMs delay between two flushes
+     * @param capacity        max players waiting for a flush
+     */
+    public PlayerDataFlusher(HytaleLogger logger, Consumer<UUID> writer, long flushIntervalMs, int capacity) {
+        this.logger = logger;
+        this.writer = writer;
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SeyonLevelSystem-DataFlusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.at(Level.INFO).log("Player data write-behind enabled (flush every " + flushIntervalMs + " ms, max " + queue.remainingCapacity() + " pending)");
+    }
+
+    /**
+     * Mark a player dirty. Coalesces with an already pending flush for the same player.
+     * @return false if the queue is full and the caller must write synchronously
+     */
+    public boolean markDirty(UUID playerId) {
+        if (!queued.add(playerId)) {
+            return true; // Already pending, will be written by the next flush
+        }
+        if (!queue.offer(playerId)) {
+            queued.remove(playerId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop a pending flush (e.g. the caller is about to write the player synchronously).
+     */
+    public void cancel(UUID playerId) {
+        if (queued.remove(playerId)) {
+            queue.remove(playerId);
+        }
+    }
+
+    /**
+     * Write all pending players now (on the calling thread).
+     */
+    public void flush() {
+        List<UUID> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        for (UUID playerId : batch) {
+            // Clear the flag before writing so a mutation during the write re-queues the player
+            queued.remove(playerId);
+            try {
+                writer.accept(playerId);
+            } catch (Exception e) {
+                logger.at(Level.SEVERE).withCause(e).log("Write-behind flush failed for: " + playerId);
+            }
+        }
+        if (!batch.isEmpty()) {
+            logger.at(Level.FINE).log("Write-behind flushed " + batch.size() + " player(s)");
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Write-behind flusher failed");
+        }
+    }
+
+    /**
+     * Stop the background thread and write everything that is still pending.
+     */
+    public void shutdown() {
+        stop();
+        flush();
+    }
+
+    /**
+     * Stop the background thread without writing what is pending (the caller saves everything itself).
+     */
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerDataMutation;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal for player data mutations (log-structured persistence).
+ * <p>
+ * Every EXP grant, level-up, skill change or quest completion is appended as a small binary record
+ * (the post-image of the touched sections of one category) to one of N shard files, chosen by player
+ * UUID. Records carry a global sequence number; snapshots (the player JSON files) store the last
+ * sequence they contain, so replaying a record is idempotent and older records are skipped.
+ * <p>
+ * Segment files: {@code shard-<n>.<generation>.log}. Header: magic, base sequence. Each record is
+ * {@code [int length][payload][int crc32]}; a truncated or corrupt tail (crash mid-append) ends the
+ * replay of that segment.
+ * <p>
+ * Durability: every append is handed to the OS before it returns, so a crash of the server process loses
+ * nothing. Records reach the disk with the next fsync: a background thread forces every shard with new
+ * records once per fsync interval, so a power loss or OS crash loses at most the records of the last
+ * interval. With an interval of 0 each append is forced before it returns.
+ */
+public class PlayerDataJournal {
+
+    private static final int MAGIC = 0x534C4A31; // "SLJ1"
+    private static final String SEGMENT_PREFIX = "shard-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final HytaleLogger logger;
+    private final File journalRoot;
+    private final Shard[] shards;
+    private final AtomicLong sequence = new AtomicLong();
+    private long generation;
+    private long fsyncIntervalMs;
+    private ScheduledExecutorService syncer;
+
+    public PlayerDataJournal(HytaleLogger logger, File journalRoot, int shardCount) {
+        this.logger = logger;
+        this.journalRoot = journalRoot;
+        this.shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i);
+        }
+        if (!journalRoot.exists()) {
+            journalRoot.mkdirs();
+        }
+    }
+
+    /**
+     * Decoded journal record: post-image of the sections touched by {@link #getMutation()}.
+     */
+    public static final class Record {
+        private final long sequence;
+        private final UUID playerId;
+        private final String categoryId;
+        private final PlayerDataMutation mutation;
+        private int level;
+        private double exp;
+        private double expForNextLevel;
+        private boolean canGainExp;
+        private int pendingLevelUps;
+        private int skillPoints;
+        private Map<String, Integer> skills;
+        private Set<Integer> quests;
+
+        private Record(long sequence, UUID playerId, String categoryId, PlayerDataMutation mutation) {
+            this.sequence = sequence;
+            this.playerId = playerId;
+            this.categoryId = categoryId;
+            this.mutation = mutation;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public UUID getPlayerId() {
+            return playerId;
+        }
+
+        public String getCategoryId() {
+            return categoryId;
+        }
+
+        public PlayerDataMutation getMutation() {
+            return mutation;
+        }
+
+        /**
+         * Apply this record on top of a snapshot. Skipped if the snapshot already contains it.
+         */
+        public void applyTo(PlayerLevelSystemData data) {
+            if (sequence <= data.getJournalSequence()) {
+                return;
+            }
+            if (mutation.touchesProgress()) {
+                CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+                progress.setCurrentLevel(level);
+                progress.setCurrentExp(exp);
+                progress.setExpForNextLevel(expForNextLevel);
+                progress.setCanGainExp(canGainExp);
+                progress.setPendingLevelUps(pendingLevelUps);
+            }
+            if (mutation.touchesSkillPoints()) {
+                data.getAvailableSkillPoints().put(categoryId, skillPoints);
+            }
+            if (mutation.touchesSkills()) {
+                data.getActiveSkills().put(categoryId, new HashMap<>(skills));
+            }
+            if (mutation.touchesQuests()) {
+                data.getCompletedQuests().put(categoryId, new HashSet<>(quests));
+            }
+            data.setJournalSequence(sequence);
+        }
+    }
+
+    /**
+     * Segments found on disk and the records they contain, grouped by player in append order.
+     */
+    public static final class Contents {
+        private final List<File> segments;
+        private final Map<UUID, List<Record>> records;
+
+        private Contents(List<File> segments, Map<UUID, List<Record>> records) {
+            this.segments = segments;
+            this.records = records;
+        }
+
+        public List<File> getSegments() {
+            return segments;
+        }
+
+        public Map<UUID, List<Record>> getRecords() {
+            return records;
+        }
+    }
+
+    /**
+     * Read all segments currently on disk (call before {@link #open()} for crash recovery).
+     * Also advances the sequence counter past every sequence seen.
+     */
+    public Contents readAll() {
+        List<File> segments = listSegments();
+        return new Contents(segments, read(segments));
+    }
+
+    /**
+     * Open a fresh active segment per shard. Records are appended there until the next {@link #rotate()}.
+     * @param fsyncIntervalMs how often new records are forced to disk (0 = on every append)
+     */
+    public synchronized void open(long fsyncIntervalMs) throws IOException {
+        this.fsyncIntervalMs = Math.max(0, fsyncIntervalMs);
+        generation++;
+        for (Shard shard : shards) {
+            shard.open(generation);
+        }
+        if (this.fsyncIntervalMs > 0 && syncer == null) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "SeyonLevelSystem-JournalSync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::syncSafely, this.fsyncIntervalMs, this.fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        logger.at(Level.INFO).log("Player data journal opened (" + shards.length + " shards, sequence " + sequence.get()
+            + (this.fsyncIntervalMs > 0 ? ", fsync every " + this.fsyncIntervalMs + " ms" : ", fsync per append") + ")");
+    }
+
+    /**
+     * Force the records appended since the last sync to disk (one fsync per shard with new records).
+     */
+    public void sync() {
+        for (Shard shard : shards) {
+            shard.sync();
+        }
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (Throwable t) {
+            logger.at(Level.SEVERE).withCause(t).log("Journal fsync failed");
+        }
+    }
+
+    /**
+     * Switch all shards to new segments and return the previous ones (to be compacted and deleted).
+     */
+    public synchronized List<File> rotate() throws IOException {
+        List<File> previous = new ArrayList<>(shards.length);
+        generation++;
+        for (Shard shard : shards) {
+            File old = shard.open(generation);
+            if (old != null) {
+                previous.add(old);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Read the given segments (e.g. returned by {@link #rotate()}), grouped by player.
+     */
+    public Map<UUID, List<Record>> read(List<File> segments) {
+        Map<UUID, List<Record>> records = new LinkedHashMap<>();
+        for (File segment : segments) {
+            readSegment(segment, records);
+        }
+        for (List<Record> list : records.values()) {
+            list.sort(Comparator.comparingLong(Record::getSequence));
+        }
+        return records;
+    }
+
+    /**
+     * Append the current state of the sections touched by the mutation.
+     * @return the record's sequence number, or -1 if the append failed (caller should fall back to a snapshot)
+     */
+    public long append(PlayerLevelSystemData data, String categoryId, PlayerDataMutation mutation) {
+        Shard shard = shards[Math.floorMod(data.getPlayerId().hashCode(), shards.length)];
+        try {
+            return shard.append(data, categoryId, mutation);
+        } catch (IOException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to append journal record for: " + data.getPlayerId());
+            return -1;
+        }
+    }
+
+    /**
+     * Last sequence number handed out. A snapshot taken after reading this contains every record up to it.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Make sure new records sort after a sequence seen elsewhere (e.g. in a loaded snapshot).
+     */
+    public void observeSequence(long seen) {
+        sequence.accumulateAndGet(seen, Math::max);
+    }
+
+    public void delete(List<File> segments) {
+        for (File segment : segments) {
+            try {
+                Files.deleteIfExists(segment.toPath());
+            } catch (IOException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to delete journal segment: " + segment.getName());
+            }
+        }
+    }
+
+    public synchronized void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+            syncer = null;
+        }
+        // Closing a shard forces its records
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private List<File> listSegments() {
+        File[] files = journalRoot.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        TreeSet<Long> generations = new TreeSet<>();
+        for (File file : files) {
+            long gen = parseGeneration(file.getName());
+            if (gen >= 0) {
+                generations.add(gen);
+            }
+        }
+        if (!generations.isEmpty()) {
+            generation = Math.max(generation, generations.last());
+        }
+        List<File> list = new ArrayList<>(Arrays.asList(files));
+        list.sort(Comparator.comparingLong(f -> parseGeneration(f.getName())));
+        return list;
+    }
+
+    private static long parseGeneration(String name) {
+        int dot = name.indexOf('.');
+        int end = name.length() - SEGMENT_SUFFIX.length();
+        if (dot < 0 || dot >= end) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(dot + 1, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void readSegment(File segment, Map<UUID, List<Record>> out) {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            if (in.readInt() != MAGIC) {
+                logger.at(Level.WARNING).log("Skipping journal segment with unknown header: " + segment.getName());
+                return;
+            }
+            observeSequence(in.readLong());
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                if (length <= 0 || length > 1 << 20) {
+                    logger.at(Level.WARNING).log("Corrupt journal record length in " + segment.getName() + ", stopping replay of this segment");
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int crc = in.readInt();
+                if (crc != crc32(payload)) {
+                    logger.at(Level.WARNING).log("Journal checksum mismatch in " + segment.getName() + ", stopping replay of this segment");
+                    break;
+                }
+                Record record = decode(payload);
+                observeSequence(record.getSequence());
+                out.computeIfAbsent(record.getPlayerId(), k -> new ArrayList<>()).add(record);
+                count++;
+            }
+        } catch (EOFException e) {
+            logger.at(Level.WARNING).log("Truncated journal record at end of " + segment.getName() + " (ignored)");
+        } catch (IOException | RuntimeException e) {
+            logger.at(Level.SEVERE).withCause(e).log("Failed to read journal segment: " + segment.getName());
+        }
+        logger.at(Level.FINE).log("Read " + count + " journal record(s) from " + segment.getName());
+    }
+
+    private static Record decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        PlayerDataMutation mutation = PlayerDataMutation.values()[in.readUnsignedByte()];
+        long seq = in.readLong();
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        Record record = new Record(seq, playerId, in.readUTF(), mutation);
+        if (mutation.touchesProgress()) {
+            record.level = in.readInt();
+            record.exp = in.readDouble();
+            record.expForNextLevel = in.readDouble();
+            record.canGainExp = in.readBoolean();
+            record.pendingLevelUps = in.readInt();
+        }
+        if (mutation.touchesSkillPoints()) {
+            record.skillPoints = in.readInt();
+        }
+        if (mutation.touchesSkills()) {
+            int n = in.readInt();
+            record.skills = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                record.skills.put(in.readUTF(), in.readInt());
+            }
+        }
+        if (mutation.touchesQuests()) {
+            int n = in.readInt();
+            record.quests = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                record.quests.add(in.readInt());
+            }
+        }
+        return record;
+    }
+
+    private static int crc32(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * One shard: an active segment file with its own lock, so appends for different shards do not contend.
+     */
+    private final class Shard {
+        private final int index;
+        private File file;
+        private FileOutputStream fileOut;
+        private DataOutputStream out;
+        /** Records appended since the last fsync */
+        private boolean unsynced;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        /** Open a new segment and return the previous one (already closed), or null. */
+        private synchronized File open(long gen) throws IOException {
+            File previous = file;
+            close();
+            file = new File(journalRoot, SEGMENT_PREFIX + String.format("%02d", index) + "." + gen + SEGMENT_SUFFIX);
+            fileOut = new FileOutputStream(file, true);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            out.writeInt(MAGIC);
+            out.writeLong(sequence.get());
+            out.flush();
+            return previous;
+        }
+
+        private synchronized long append(PlayerLevelSystemData data, String categoryId, PlayerDataMutation mutation) throws IOException {
+            if (out == null) {
+                throw new IOException("Journal shard " + index + " is not open");
+            }
+            long seq = sequence.incrementAndGet();
+            buffer.reset();
+            encode(bufferOut, seq, data, categoryId, mutation);
+            bufferOut.flush();
+            byte[] payload = buffer.toByteArray();
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeInt(crc32(payload));
+            out.flush();
+            if (fsyncIntervalMs == 0) {
+                fileOut.getChannel().force(false);
+            } else {
+                unsynced = true;
+            }
+            return seq;
+        }
+
+        /** Force new records outside the shard lock, so appends are not held up by the fsync */
+        private void sync() {
+            FileChannel channel;
+            synchronized (this) {
+                if (out == null || !unsynced) {
+                    return;
+                }
+                unsynced = false;
+                channel = fileOut.getChannel();
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated meanwhile; close() forced the segment
+            } catch (IOException e) {
+                synchronized (this) {
+                    unsynced = true;
+                }
+                logger.at(Level.WARNING).withCause(e).log("Failed to fsync journal shard " + index);
+            }
+        }
+
+        private synchronized void close() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.flush();
+                fileOut.getChannel().force(false);
+            } catch (IOException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to fsync journal shard " + index);
+            }
+            unsynced = false;
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.at(Level.WARNING).withCause(e).log("Failed to close journal shard " + index);
+            }
+            out = null;
+            fileOut = null;
+        }
+    }
+
+    private static void encode(DataOutputStream out, long seq, PlayerLevelSystemData data, String categoryId,
+                               PlayerDataMutation mutation) throws IOException {
+        out.writeByte(mutation.ordinal());
+        out.writeLong(seq);
+        out.writeLong(data.getPlayerId().getMostSignificantBits());
+        out.writeLong(data.getPlayerId().getLeastSignificantBits());
+        out.writeUTF(categoryId);
+        if (mutation.touchesProgress()) {
+            CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+            out.writeInt(progress.getCurrentLevel());
+            out.writeDouble(progress.getCurrentExp());
+            out.writeDouble(progress.getExpForNextLevel());
+            out.writeBoolean(progress.isCanGainExp());
+            out.writeInt(progress.getPendingLevelUps());
+        }
+        if (mutation.touchesSkillPoints()) {
+            out.writeInt(data.getAvailableSkillPoints(categoryId));
+        }
+        if (mutation.touchesSkills()) {
+            Map<String, Integer> skills = data.getActiveSkills().getOrDefault(categoryId, Map.of());
+            out.writeInt(skills.size());
+            for (Map.Entry<String, Integer> e : skills.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue());
+            }
+        }
+        if (mutation.touchesQuests()) {
+            Set<Integer> quests = data.getCompletedQuests().getOrDefault(categoryId, Set.of());
+            out.writeInt(quests.size());
+            for (Integer level : quests) {
+                out.writeInt(level);
+            }
+        }
+    }
+}
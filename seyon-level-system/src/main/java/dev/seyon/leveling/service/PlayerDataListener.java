@@ -0,0 +1,25 @@
+package dev.seyon.leveling.service;
+
+import dev.seyon.leveling.model.PlayerDataMutation;
+
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * Notified by {@link LevelSystemDataService} after a player's data changed or was dropped from the
+ * cache, so services can invalidate values derived from it. Called on the mutating thread, possibly
+ * while the player's lock is held: implementations must be quick and must not take other locks.
+ */
+public interface PlayerDataListener {
+
+    /**
+     * @param categoryId changed category, or null if several or all categories may have changed
+     */
+    void onPlayerDataChanged(UUID playerId, @Nullable String categoryId, PlayerDataMutation mutation);
+
+    /**
+     * The player's data was unloaded (disconnect or offline cache eviction)
+     */
+    default void onPlayerDataUnloaded(UUID playerId) {}
+}
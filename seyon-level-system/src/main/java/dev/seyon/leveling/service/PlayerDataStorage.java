@@ -0,0 +1,84 @@
+package dev.seyon.leveling.service;
+
+import dev.seyon.leveling.model.LeaderboardEntry;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for player data. {@link LevelSystemDataService} owns the cache, write-behind and
+ * journal; a backend only reads and writes snapshots.
+ * <p>
+ * Implementations: {@link FilePlayerDataStorage} (one file per player) and {@link JdbcPlayerDataStorage}
+ * (embedded SQLite database).
+ */
+public interface PlayerDataStorage {
+
+    /**
+     * Short name for logs and config ("file", "sqlite")
+     */
+    String getName();
+
+    /**
+     * Load a player's snapshot.
+     * @return the data, or null if the player has no (readable) snapshot
+     */
+    PlayerLevelSystemData load(UUID playerId) throws IOException;
+
+    /**
+     * Save one player's snapshot. Depending on the backend it may only be durable after {@link #flush()}.
+     * @return completes when the snapshot is durable, or exceptionally if making it durable failed later
+     */
+    CompletableFuture<Void> save(PlayerLevelSystemData data) throws IOException;
+
+    /**
+     * Whether {@link #saveDelta} writes only the changed sections. If not, every save is a full snapshot
+     * and the caller copies the whole player.
+     */
+    default boolean supportsDelta() {
+        return false;
+    }
+
+    /**
+     * Save only the given categories of a player (plus the per-player fields, and the visited chunks if
+     * {@link PlayerLevelSystemData#isVisitedChunksDirty()}). The set may be empty. The backend must already
+     * hold the player's other categories. Only called if {@link #supportsDelta()}; the data may then hold
+     * nothing but the given sections (see {@link PlayerLevelSystemData#copy(Set, boolean)}).
+     */
+    default CompletableFuture<Void> saveDelta(PlayerLevelSystemData data, Set<String> categoryIds) throws IOException {
+        return save(data);
+    }
+
+    /**
+     * Save several players at once (one transaction / one commit window where the backend supports it).
+     */
+    CompletableFuture<Void> saveBatch(Collection<PlayerLevelSystemData> batch) throws IOException;
+
+    /**
+     * Remove a player's snapshot.
+     */
+    void delete(UUID playerId) throws IOException;
+
+    /**
+     * Call the consumer for every stored player.
+     */
+    void scan(Consumer<UUID> consumer) throws IOException;
+
+    /**
+     * Top players of a category, ordered by level then EXP (highest first).
+     */
+    List<LeaderboardEntry> topByLevel(String categoryId, int limit) throws IOException;
+
+    /**
+     * Make every save issued so far durable.
+     */
+    void flush();
+
+    void close();
+}
@@ -0,0 +1,53 @@
+package dev.seyon.leveling.service;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of reentrant locks, one chosen per player UUID. Serializes all mutations and save
+ * snapshots of one player (world threads, async commands, API calls) without a lock object per
+ * player. Two players may share a stripe, which only costs some contention.
+ */
+public class PlayerLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    public PlayerLockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(UUID playerId) {
+        int h = playerId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    public <T> T withLock(UUID playerId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withLock(UUID playerId, Runnable action) {
+        ReentrantLock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
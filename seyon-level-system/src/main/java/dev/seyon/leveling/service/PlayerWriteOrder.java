@@ -0,0 +1,204 @@
+package dev.seyon.leveling.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the snapshots of one player from reaching storage out of order. Every snapshot takes a
+ * sequence number when it is copied (under the player's lock, see {@link #begin(UUID)}); writes of
+ * one player run one at a time, and a write is skipped if a newer snapshot of that player was already
+ * written. The flusher, autosave, compaction and unload can therefore write the same player
+ * concurrently without an older snapshot landing after a newer one. Skipping is only safe for full
+ * snapshots, see {@link #hasEarlierInFlight(UUID)}.
+ * <p>
+ * Writes of different players do not wait for each other. A player's entry only exists while one of
+ * their snapshots is in flight: with none in flight, every later snapshot is newer than anything written.
+ */
+public class PlayerWriteOrder {
+
+    /**
+     * Writes a snapshot to storage; the future completes when it is durable
+     */
+    @FunctionalInterface
+    public interface Write {
+        CompletableFuture<Void> run() throws IOException;
+    }
+
+    /**
+     * Writes the snapshots at the given indexes of a batch
+     */
+    @FunctionalInterface
+    public interface BatchWrite {
+        CompletableFuture<Void> run(List<Integer> indexes) throws IOException;
+    }
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<UUID, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Start a snapshot of the player (call under the player's lock, while copying). Must be followed by
+     * exactly one {@link #write}, {@link #writeBatch} or {@link #abandon} for the returned sequence.
+     * @return the snapshot's sequence number
+     */
+    public long begin(UUID playerId) {
+        long next = sequence.incrementAndGet();
+        states.compute(playerId, (id, state) -> {
+            State current = state != null ? state : new State();
+            synchronized (current) {
+                current.inFlight++;
+            }
+            return current;
+        });
+        return next;
+    }
+
+    /**
+     * Whether another snapshot of the player is still in flight besides the one just begun. A delta
+     * snapshot must not be taken then: the earlier snapshot may still be skipped as outdated, and its
+     * changes would only be in a full one.
+     */
+    public boolean hasEarlierInFlight(UUID playerId) {
+        State state = states.get(playerId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.inFlight > 1;
+        }
+    }
+
+    /**
+     * Run the write of one snapshot unless a newer snapshot of the player was written already.
+     * @return the write's durability future (already complete if the snapshot was skipped as outdated)
+     */
+    public CompletableFuture<Void> write(UUID playerId, long snapshotSequence, Write write) throws IOException {
+        State state = states.get(playerId);
+        state.writing.lock();
+        try {
+            synchronized (state) {
+                if (snapshotSequence <= state.written) {
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+            CompletableFuture<Void> durable = write.run();
+            synchronized (state) {
+                state.written = Math.max(state.written, snapshotSequence);
+            }
+            return durable;
+        } finally {
+            state.writing.unlock();
+            end(playerId, state);
+        }
+    }
+
+    /**
+     * Run one write for several players' snapshots (parallel to playerIds). Outdated snapshots are left
+     * out; the write receives the indexes of the snapshots to write.
+     * @return the write's durability future
+     */
+    public CompletableFuture<Void> writeBatch(List<UUID> playerIds, long[] snapshotSequences, BatchWrite write) throws IOException {
+        List<State> batch = new ArrayList<>(playerIds.size());
+        for (UUID playerId : playerIds) {
+            batch.add(states.get(playerId));
+        }
+        // One lock order for every batch, so overlapping batches cannot deadlock
+        List<Integer> lockOrder = new ArrayList<>(playerIds.size());
+        for (int i = 0; i < playerIds.size(); i++) {
+            lockOrder.add(i);
+        }
+        lockOrder.sort(Comparator.comparing(playerIds::get));
+        int locked = 0;
+        try {
+            for (int i : lockOrder) {
+                batch.get(i).writing.lock();
+                locked++;
+            }
+            List<Integer> current = new ArrayList<>(playerIds.size());
+            for (int i = 0; i < playerIds.size(); i++) {
+                State state = batch.get(i);
+                synchronized (state) {
+                    if (snapshotSequences[i] > state.written) {
+                        current.add(i);
+                    }
+                }
+            }
+            CompletableFuture<Void> durable = current.isEmpty() ? CompletableFuture.completedFuture(null) : write.run(current);
+            for (int i : current) {
+                State state = batch.get(i);
+                synchronized (state) {
+                    state.written = Math.max(state.written, snapshotSequences[i]);
+                }
+            }
+            return durable;
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                batch.get(lockOrder.get(i)).writing.unlock();
+            }
+            for (int i = 0; i < playerIds.size(); i++) {
+                end(playerIds.get(i), batch.get(i));
+            }
+        }
+    }
+
+    /**
+     * End a snapshot that will not be written
+     */
+    public void abandon(UUID playerId) {
+        end(playerId, states.get(playerId));
+    }
+
+    /**
+     * Wait until no snapshot of the player is in flight (e.g. before loading a player whose unload
+     * snapshot is still being written).
+     */
+    public void awaitWrites(UUID playerId) {
+        State state = states.get(playerId);
+        if (state == null) {
+            return;
+        }
+        boolean interrupted = false;
+        synchronized (state) {
+            while (state.inFlight > 0) {
+                try {
+                    state.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void end(UUID playerId, State state) {
+        synchronized (state) {
+            if (--state.inFlight == 0) {
+                state.notifyAll();
+            }
+        }
+        // Without snapshots in flight the entry carries nothing a later snapshot needs
+        states.computeIfPresent(playerId, (id, current) -> {
+            synchronized (current) {
+                return current.inFlight == 0 ? null : current;
+            }
+        });
+    }
+
+    private static final class State {
+        /** Held while writing a snapshot of this player */
+        final ReentrantLock writing = new ReentrantLock();
+        /** Sequence of the newest snapshot written; guarded by this */
+        long written;
+        /** Snapshots begun and not yet written or abandoned; guarded by this */
+        int inFlight;
+    }
+}
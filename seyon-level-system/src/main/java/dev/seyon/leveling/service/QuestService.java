@@ -7,12 +7,14 @@ import dev.seyon.leveling.config.LevelSystemCategory;
 import dev.seyon.leveling.config.MilestoneQuestConfig;
 import dev.seyon.leveling.config.QuestItemRequirement;
 import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerDataMutation;
 import dev.seyon.leveling.model.PlayerLevelSystemData;
 import dev.seyon.core.PlayerUtils;
 
 import java.awt.Color;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 /**
@@ -94,48 +96,52 @@ public class QuestService {
             return false;
         }
         
-        PlayerLevelSystemData data = dataService.getPlayerData(playerId);
-        CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
-        
-        // Check if already completed
-        if (data.isQuestCompleted(categoryId, level)) {
-            return false;
-        }
-        
-        // Check requirements
-        if (!checkQuestRequirement(playerId, categoryId, level, player)) {
+        ReentrantLock lock = dataService.lockPlayerData(playerId);
+        try {
+            PlayerLevelSystemData data = dataService.getPlayerData(playerId);
+            CategoryProgress progress = data.getOrCreateCategoryProgress(categoryId);
+            
+            // Check if already completed
+            if (data.isQuestCompleted(categoryId, level)) {
+                return false;
+            }
+            
+            // Check requirements
+            if (!checkQuestRequirement(playerId, categoryId, level, player)) {
+                if (player != null) {
+                    player.sendMessage(Message.raw("You don't have all required items!").color(Color.RED));
+                }
+                return false;
+            }
+            
+            // Mark quest as completed
+            data.completeQuest(categoryId, level);
+            
+            // Re-enable EXP gain
+            progress.setCanGainExp(true);
+            
+            // Remove required items if applicable
+            MilestoneQuestConfig quest = category.getMilestoneQuest(level);
+            if (quest != null && !quest.getRequiredItems().isEmpty()) {
+                removeQuestItems(player, quest.getRequiredItems());
+            }
+            
+            dataService.markDirty(playerId, categoryId, PlayerDataMutation.QUEST);
+            
+            // Send message
             if (player != null) {
-                player.sendMessage(Message.raw("You don't have all required items!").color(Color.RED));
+                player.sendMessage(Message.join(
+                    Message.raw("✅ Quest Complete! ").color(Color.GREEN).bold(true),
+                    Message.raw("You can now continue leveling ").color(Color.YELLOW),
+                    Message.raw(category.getDisplayName()).color(Color.CYAN)
+                ));
             }
-            return false;
-        }
-        
-        // Mark quest as completed
-        data.completeQuest(categoryId, level);
-        
-        // Re-enable EXP gain
-        progress.setCanGainExp(true);
-        
-        // Remove required items if applicable
-        MilestoneQuestConfig quest = category.getMilestoneQuest(level);
-        if (quest != null && !quest.getRequiredItems().isEmpty()) {
-            removeQuestItems(player, quest.getRequiredItems());
-        }
-        
-        // Save data
-        dataService.savePlayerData(playerId, data);
-        
-        // Send message
-        if (player != null) {
-            player.sendMessage(Message.join(
-                Message.raw("✅ Quest Complete! ").color(Color.GREEN).bold(true),
-                Message.raw("You can now continue leveling ").color(Color.YELLOW),
-                Message.raw(category.getDisplayName()).color(Color.CYAN)
-            ));
+            
+            logger.at(Level.INFO).log("Player " + playerId + " completed quest for " + categoryId + " level " + level);
+            return true;
+        } finally {
+            lock.unlock();
         }
-        
-        logger.at(Level.INFO).log("Player " + playerId + " completed quest for " + categoryId + " level " + level);
-        return true;
     }
 
     /**
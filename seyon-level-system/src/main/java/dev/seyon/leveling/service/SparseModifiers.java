@@ -0,0 +1,102 @@
+package dev.seyon.leveling.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse modifier list: parallel arrays of {@link ModifierRegistry} slots and values,
+ * one entry per slot. Adding it to a dense vector is a loop over primitives (no boxing, no hashing).
+ */
+public final class SparseModifiers {
+
+    public static final SparseModifiers EMPTY = new SparseModifiers(new int[0], new double[0]);
+
+    private final int[] slots;
+    private final double[] values;
+
+    private SparseModifiers(int[] slots, double[] values) {
+        this.slots = slots;
+        this.values = values;
+    }
+
+    /**
+     * Entries with the same slot are summed
+     */
+    static SparseModifiers of(int[] slots, double[] values) {
+        if (slots.length == 0) {
+            return EMPTY;
+        }
+        int top = 0;
+        for (int slot : slots) {
+            top = Math.max(top, slot);
+        }
+        double[] dense = new double[top + 1];
+        boolean[] present = new boolean[top + 1];
+        for (int i = 0; i < slots.length; i++) {
+            dense[slots[i]] += values[i];
+            present[slots[i]] = true;
+        }
+        return fromDense(dense, present);
+    }
+
+    private static SparseModifiers fromDense(double[] dense, boolean[] present) {
+        int count = 0;
+        for (boolean p : present) {
+            if (p) {
+                count++;
+            }
+        }
+        int[] slots = new int[count];
+        double[] values = new double[count];
+        int i = 0;
+        for (int slot = 0; slot < dense.length; slot++) {
+            if (present[slot]) {
+                slots[i] = slot;
+                values[i] = dense[slot];
+                i++;
+            }
+        }
+        return new SparseModifiers(slots, values);
+    }
+
+    /**
+     * Entry-wise sum of two lists
+     */
+    public SparseModifiers plus(SparseModifiers other) {
+        if (other.slots.length == 0) {
+            return this;
+        }
+        if (slots.length == 0) {
+            return other;
+        }
+        int[] merged = Arrays.copyOf(slots, slots.length + other.slots.length);
+        System.arraycopy(other.slots, 0, merged, slots.length, other.slots.length);
+        double[] mergedValues = Arrays.copyOf(values, values.length + other.values.length);
+        System.arraycopy(other.values, 0, mergedValues, values.length, other.values.length);
+        return of(merged, mergedValues);
+    }
+
+    /**
+     * Add {@code scale * value} of every entry to a dense vector indexed by slot (must be long enough)
+     */
+    public void addTo(double[] vector, double scale) {
+        for (int i = 0; i < slots.length; i++) {
+            vector[slots[i]] += values[i] * scale;
+        }
+    }
+
+    public boolean isEmpty() {
+        return slots.length == 0;
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public int slotAt(int index) {
+        return slots[index];
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+}
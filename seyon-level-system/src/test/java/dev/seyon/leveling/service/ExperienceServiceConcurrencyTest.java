@@ -0,0 +1,135 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.config.LevelSystemMainConfig;
+import dev.seyon.leveling.model.CategoryProgress;
+import dev.seyon.leveling.model.PlayerDataMutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers {@link ExperienceService#grantExp} from many threads while players are unloaded, evicted,
+ * flushed and saved concurrently, then checks that no EXP was lost, neither in memory nor on disk.
+ */
+class ExperienceServiceConcurrencyTest {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final int THREADS = 8;
+    private static final int PLAYERS = 32;
+    private static final int GRANTS_PER_THREAD = 20_000;
+
+    @Test
+    void concurrentGrantsLoseNoExp() throws Exception {
+        LevelSystemConfigService configService = new LevelSystemConfigService(LOGGER);
+        configService.load();
+        CategoryService categoryService = new CategoryService(LOGGER);
+        categoryService.loadCategories(configService);
+        String categoryId = categoryService.getCategoryIds().get(0);
+
+        LevelSystemDataService dataService = new LevelSystemDataService(LOGGER);
+        dataService.start(persistence());
+        ExperienceService experienceService = new ExperienceService(LOGGER, categoryService, dataService,
+            configService, new ExpNotificationService());
+
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            UUID playerId = UUID.randomUUID();
+            players.add(playerId);
+            // No level-up, so every grant is added in full
+            ReentrantLock lock = dataService.lockPlayerData(playerId);
+            try {
+                dataService.getPlayerData(playerId).getOrCreateCategoryProgress(categoryId).setExpForNextLevel(Double.MAX_VALUE);
+                dataService.markDirty(playerId, categoryId, PlayerDataMutation.ADMIN);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        AtomicLongArray granted = new AtomicLongArray(PLAYERS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        // Unloads, evictions and full saves race with the grants
+        Future<?> churn = pool.submit(() -> {
+            while (running.get()) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                dataService.unloadPlayerData(players.get(random.nextInt(PLAYERS)));
+                dataService.evictOfflinePlayers();
+                if (random.nextInt(50) == 0) {
+                    dataService.saveAll(2, 10_000);
+                }
+            }
+        });
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < GRANTS_PER_THREAD; i++) {
+                    int player = random.nextInt(PLAYERS);
+                    experienceService.grantExp(players.get(player), categoryId, 1.0, null);
+                    granted.incrementAndGet(player);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        running.set(false);
+        churn.get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        long total = 0;
+        for (int i = 0; i < PLAYERS; i++) {
+            assertEquals(granted.get(i), exp(dataService, players.get(i), categoryId), "EXP in memory of player " + i);
+            total += granted.get(i);
+        }
+        assertEquals((long) THREADS * GRANTS_PER_THREAD, total);
+        dataService.shutdown();
+
+        // Everything must also have reached storage
+        LevelSystemDataService reloaded = new LevelSystemDataService(LOGGER);
+        reloaded.start(persistence());
+        try {
+            for (int i = 0; i < PLAYERS; i++) {
+                assertEquals(granted.get(i), exp(reloaded, players.get(i), categoryId), "EXP on disk of player " + i);
+            }
+        } finally {
+            reloaded.shutdown();
+        }
+    }
+
+    private static long exp(LevelSystemDataService dataService, UUID playerId, String categoryId) {
+        CategoryProgress progress = dataService.getPlayerData(playerId).getCategoryProgress().get(categoryId);
+        assertTrue(progress != null, "category missing for " + playerId);
+        return (long) progress.getCurrentExp();
+    }
+
+    /**
+     * Write-behind with a short interval, group commit and a tiny offline cache, so flushes, commits and
+     * evictions happen all the time
+     */
+    private static LevelSystemMainConfig.PersistenceSettings persistence() {
+        LevelSystemMainConfig.PersistenceSettings settings = new LevelSystemMainConfig.PersistenceSettings();
+        settings.setWriteBehindEnabled(true);
+        settings.setFlushIntervalMs(1);
+        settings.setGroupCommitFsync(true);
+        settings.setFsyncWindowMs(5);
+        settings.setOfflineCacheMaxPlayers(4);
+        settings.setOfflineCacheTtlMs(60_000);
+        settings.setAutosaveIntervalMs(0);
+        return settings;
+    }
+}
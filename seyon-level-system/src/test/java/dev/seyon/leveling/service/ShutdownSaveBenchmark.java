@@ -0,0 +1,84 @@
+package dev.seyon.leveling.service;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import dev.seyon.leveling.config.LevelSystemMainConfig;
+import dev.seyon.leveling.model.PlayerLevelSystemData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time of the shutdown save ({@link LevelSystemDataService#shutdown()}) for 1k, 10k and 50k cached players
+ * with the file backend, with and without group commit. Run with
+ * {@code ./gradlew :seyon-level-system:test --tests '*ShutdownSaveBenchmark' -Dbenchmark=true}.
+ * Results and how they were taken: docs/DEVELOPER.md.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ShutdownSaveBenchmark {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final int[] PLAYER_COUNTS = {1_000, 10_000, 50_000};
+    private static final String[] CATEGORIES = {"mining", "woodcutting", "farming", "combat_melee", "combat_ranged"};
+    private static final File ROOT = new File("SeyonLevelSystem");
+
+    @Test
+    void shutdownSave() throws IOException {
+        System.out.println("players  group_commit  shutdown_ms");
+        for (boolean groupCommit : new boolean[] {true, false}) {
+            for (int players : PLAYER_COUNTS) {
+                long elapsedMs = measure(players, groupCommit);
+                System.out.printf("%7d  %12s  %11d%n", players, groupCommit, elapsedMs);
+            }
+        }
+    }
+
+    private static long measure(int players, boolean groupCommit) throws IOException {
+        deleteRoot();
+        LevelSystemMainConfig.PersistenceSettings settings = new LevelSystemMainConfig.PersistenceSettings();
+        settings.setGroupCommitFsync(groupCommit);
+        settings.setAutosaveIntervalMs(0);
+        // Every player must make it, however slow the disk
+        settings.setShutdownSaveTimeoutMs(600_000);
+        LevelSystemDataService dataService = new LevelSystemDataService(LOGGER);
+        dataService.start(settings);
+        for (int i = 0; i < players; i++) {
+            UUID playerId = UUID.randomUUID();
+            // Online players stay cached, like a full server going down
+            dataService.pinPlayer(playerId);
+            PlayerLevelSystemData data = dataService.getPlayerData(playerId);
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                data.getOrCreateCategoryProgress(CATEGORIES[c]).setCurrentExp(i + c);
+                data.addSkillPoints(CATEGORIES[c], c);
+            }
+            data.visitChunk("default", i % 64, i / 64);
+        }
+
+        long start = System.nanoTime();
+        dataService.shutdown();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        String[] files = new File(ROOT, "playerdata").list((dir, name) -> name.endsWith(FilePlayerDataStorage.BINARY_EXTENSION));
+        assertEquals(players, files != null ? files.length : 0, "player files written");
+        return elapsedMs;
+    }
+
+    private static void deleteRoot() throws IOException {
+        if (!ROOT.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(ROOT.toPath())) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}